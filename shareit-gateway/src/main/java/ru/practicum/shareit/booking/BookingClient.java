@@ -1,14 +1,21 @@
 package ru.practicum.shareit.booking;
 
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -16,15 +23,39 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl,
+                         @Value("${shareit-server.stream.max-connections}") int streamMaxConnections,
+                         @Value("${shareit-server.stream.connection-request-timeout}")
+                         Duration streamConnectionRequestTimeout,
+                         RestTemplateBuilder builder) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .build(),
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
+                        .requestFactory(() -> streamRequestFactory(streamMaxConnections,
+                                streamConnectionRequestTimeout))
                         .build()
         );
     }
 
+    private static HttpComponentsClientHttpRequestFactory streamRequestFactory(int maxConnections,
+                                                                               Duration connectionRequestTimeout) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(
+                HttpClients.custom()
+                        .useSystemProperties()
+                        .setConnectionManager(connectionManager)
+                        .build());
+        requestFactory.setConnectionRequestTimeout((int) connectionRequestTimeout.toMillis());
+        return requestFactory;
+    }
+
     public ResponseEntity<Object> create(long bookerId, BookingDtoInput bookingDtoInput) {
         return post("", bookerId, bookingDtoInput);
     }
@@ -33,25 +64,48 @@ public class BookingClient extends BaseClient {
         return get("/" + id, userId);
     }
 
-    public ResponseEntity<Object> readAllBookerBookings(long userId, String state, Integer from, Integer size) {
+    public ResponseEntity<Object> readAllBookerBookings(long userId, String state, Integer from, Integer size,
+                                                        String cursor) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
                 "size", size
         );
 
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}", userId, parameters, cursor);
     }
 
     public ResponseEntity<Object> readAllOwnerItemBookings(long ownerId, String state,
-                                                           Integer from, Integer size) {
+                                                           Integer from, Integer size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "state", state,
                 "from", from,
                 "size", size
         );
 
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters, cursor);
+    }
+
+    public ResponseEntity<Object> readOwnerStats(long ownerId) {
+        return get("/owner/stats", ownerId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamOwnerItemBookings(long ownerId, Long lastEventId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        if (lastEventId != null) {
+            headers.set("Last-Event-ID", String.valueOf(lastEventId));
+        }
+
+        return stream("/owner/stream", ownerId, headers);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportOwnerItemBookings(long ownerId, BookingExportFormat format) {
+        return stream("/owner/export?format=" + format.getExtension(), ownerId, new HttpHeaders());
+    }
+
+    public ResponseEntity<Object> updateApprovals(long ownerId, List<BookingDtoDecision> decisions) {
+        return patch("/batch", ownerId, decisions);
     }
 
     public ResponseEntity<Object> updateApproval(long ownerId, long id, Boolean isApproved) {
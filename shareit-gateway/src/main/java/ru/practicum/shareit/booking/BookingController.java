@@ -1,14 +1,18 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.exception.BadRequestException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Validated
 @RestController
@@ -34,11 +38,12 @@ public class BookingController {
                                                   @RequestParam(defaultValue = "ALL") String state,
                                                   @RequestParam(defaultValue = "0") @Min(0) Integer from,
                                                   @RequestParam(defaultValue = "10")
-                                                  @Min(1) @Max(200) Integer size) {
+                                                  @Min(1) @Max(200) Integer size,
+                                                  @RequestParam(required = false) String cursor) {
         BookingStatus.from(state)
                 .orElseThrow(() -> new BadRequestException("Unknown state: " + state));
 
-        return bookingClient.readAllBookerBookings(userId, state, from, size);
+        return bookingClient.readAllBookerBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
@@ -46,11 +51,40 @@ public class BookingController {
                                                     @RequestParam(defaultValue = "ALL") String state,
                                                     @RequestParam(defaultValue = "0") @Min(0) Integer from,
                                                     @RequestParam(defaultValue = "10")
-                                                    @Min(1) @Max(200) Integer size) {
+                                                    @Min(1) @Max(200) Integer size,
+                                                    @RequestParam(required = false) String cursor) {
         BookingStatus.from(state)
                 .orElseThrow(() -> new BadRequestException("Unknown state: " + state));
 
-        return bookingClient.readAllOwnerItemBookings(ownerId, state, from, size);
+        return bookingClient.readAllOwnerItemBookings(ownerId, state, from, size, cursor);
+    }
+
+    @GetMapping("/owner/stats")
+    public ResponseEntity<Object> findOwnerBookingStats(@RequestHeader("X-Sharer-User-Id") long ownerId) {
+        return bookingClient.readOwnerStats(ownerId);
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                     @RequestHeader(value = "Last-Event-ID",
+                                                                             required = false) Long lastEventId) {
+        return bookingClient.streamOwnerItemBookings(ownerId, lastEventId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                     @RequestParam(defaultValue = "csv") String format) {
+        BookingExportFormat exportFormat = BookingExportFormat.from(format)
+                .orElseThrow(() -> new BadRequestException("Unknown format: " + format));
+
+        return bookingClient.exportOwnerItemBookings(ownerId, exportFormat);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                 @RequestBody @Size(min = 1, max = 1000)
+                                                 List<@Valid BookingDtoDecision> decisions) {
+        return bookingClient.updateApprovals(ownerId, decisions);
     }
 
     @PatchMapping("/{id}")
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Getter;
+
+import java.util.Optional;
+
+@Getter
+public enum BookingExportFormat {
+    CSV("csv"),
+    NDJSON("ndjson");
+
+    private final String extension;
+
+    BookingExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public static Optional<BookingExportFormat> from(String strFormat) {
+        for (BookingExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(strFormat)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -8,7 +8,8 @@ public enum BookingStatus {
     PAST,
     FUTURE,
     WAITING,
-    REJECTED;
+    REJECTED,
+    EXPIRED;
 
     public static Optional<BookingStatus> from(String strState) {
         for (BookingStatus state : values()) {
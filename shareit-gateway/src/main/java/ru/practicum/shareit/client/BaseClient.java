@@ -1,18 +1,36 @@
 package ru.practicum.shareit.client;
 
+import org.apache.http.conn.ConnectionPoolTimeoutException;
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.ServiceUnavailableException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     protected final RestTemplate rest;
+    private final RestTemplate streamRest;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, rest);
+    }
+
+    public BaseClient(RestTemplate rest, RestTemplate streamRest) {
         this.rest = rest;
+        this.streamRest = streamRest;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -27,6 +45,16 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<Object> get(String path, Long userId, Map<String, Object> parameters,
+                                         @Nullable String cursor) {
+        if (cursor == null) {
+            return get(path, userId, parameters);
+        }
+        Map<String, Object> parametersWithCursor = new HashMap<>(parameters);
+        parametersWithCursor.put("cursor", cursor);
+        return get(path + "&cursor={cursor}", userId, parametersWithCursor);
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -75,6 +103,60 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId, HttpHeaders headers) {
+        ClientHttpResponse response = openStream(path, userId, headers);
+        try {
+            HttpHeaders responseHeaders = new HttpHeaders();
+            copyHeader(response.getHeaders(), responseHeaders, HttpHeaders.CONTENT_TYPE);
+            copyHeader(response.getHeaders(), responseHeaders, HttpHeaders.CONTENT_DISPOSITION);
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getRawStatusCode())
+                    .headers(responseHeaders);
+
+            if (!HttpStatus.Series.SUCCESSFUL.equals(HttpStatus.Series.resolve(response.getRawStatusCode()))) {
+                try (response) {
+                    byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                    return responseBuilder.body(out -> out.write(body));
+                }
+            }
+
+            return responseBuilder.body(out -> {
+                try (response) {
+                    InputStream in = response.getBody();
+                    byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        out.write(buffer, 0, read);
+                        out.flush();
+                    }
+                }
+            });
+        } catch (IOException e) {
+            response.close();
+            throw new ResourceAccessException("I/O error on GET request for \"" + path + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private ClientHttpResponse openStream(String path, long userId, HttpHeaders headers) {
+        try {
+            ClientHttpRequest request = streamRest.getRequestFactory()
+                    .createRequest(streamRest.getUriTemplateHandler().expand(path), HttpMethod.GET);
+            request.getHeaders().putAll(headers);
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            return request.execute();
+        } catch (ConnectionPoolTimeoutException e) {
+            throw new ServiceUnavailableException("Превышено число одновременных потоков, повторите попытку позже.");
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + path + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private static void copyHeader(HttpHeaders from, HttpHeaders to, String name) {
+        List<String> values = from.get(name);
+        if (values != null) {
+            to.put(name, values);
+        }
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
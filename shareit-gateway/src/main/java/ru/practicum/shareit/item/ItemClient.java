@@ -9,6 +9,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -33,27 +35,66 @@ public class ItemClient extends BaseClient {
         return get("/" + id, userId);
     }
 
-    public ResponseEntity<Object> readAll(long ownerId, Integer from, Integer size) {
+    public ResponseEntity<Object> readAll(long ownerId, Integer from, Integer size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
 
-        return get("?from={from}&size={size}", ownerId, parameters);
+        return get("?from={from}&size={size}", ownerId, parameters, cursor);
+    }
+
+    public ResponseEntity<Object> readAvailability(long userId, long id, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+
+        return get("/" + id + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> createAll(long ownerId, List<ItemDtoInput> itemDtoInputs) {
+        return post("/batch", ownerId, itemDtoInputs);
+    }
+
+    public ResponseEntity<Object> updateAll(long ownerId, List<ItemDtoInput> itemDtoInputs) {
+        return patch("/batch", ownerId, itemDtoInputs);
     }
 
     public ResponseEntity<Object> update(long ownerId, ItemDtoInput itemDtoInput, long id) {
         return patch("/" + id, ownerId, itemDtoInput);
     }
 
-    public ResponseEntity<Object> search(long ownerId, String text, Integer from, Integer size) {
+    public ResponseEntity<Object> search(long ownerId, String text, Integer from, Integer size,
+                                         LocalDateTime availableFrom, LocalDateTime availableTo, String cursor) {
+        if (availableFrom == null) {
+            Map<String, Object> parameters = Map.of(
+                    "text", text,
+                    "from", from,
+                    "size", size
+            );
+
+            return get("/search?text={text}&from={from}&size={size}", ownerId, parameters, cursor);
+        }
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
+                "size", size,
+                "availableFrom", availableFrom,
+                "availableTo", availableTo
+        );
+
+        return get("/search?text={text}&from={from}&size={size}"
+                + "&availableFrom={availableFrom}&availableTo={availableTo}", ownerId, parameters, cursor);
+    }
+
+    public ResponseEntity<Object> suggest(long ownerId, String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
                 "size", size
         );
 
-        return get("/search?text={text}&from={from}&size={size}", ownerId, parameters);
+        return get("/search/suggest?prefix={prefix}&size={size}", ownerId, parameters);
     }
 
     public ResponseEntity<Object> createComment(long authorId, CommentDto commentDto, long itemId) {
@@ -1,15 +1,22 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exception.BadRequestException;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
+@Validated
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/items")
@@ -22,18 +29,47 @@ public class ItemController {
         return itemClient.create(ownerId, itemDtoInput);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createItems(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                              @RequestBody @Size(min = 1, max = 1000)
+                                              List<@Valid ItemDtoInput> itemDtoInputs) {
+        return itemClient.createAll(ownerId, itemDtoInputs);
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateItems(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                              @RequestBody @Size(min = 1, max = 1000)
+                                              List<ItemDtoInput> itemDtoInputs) {
+        return itemClient.updateAll(ownerId, itemDtoInputs);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Object> findItemById(@RequestHeader("X-Sharer-User-Id") long userId,
                                                @PathVariable long id) {
         return itemClient.read(userId, id);
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Object> findFreeSlots(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @PathVariable long id,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime from,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Начало периода должно быть раньше конца. from: " + from + " to: " + to);
+        }
+
+        return itemClient.readAvailability(userId, id, from, to);
+    }
+
     @GetMapping
     public ResponseEntity<Object> findAll(@RequestHeader("X-Sharer-User-Id") long ownerId,
                                           @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                          @RequestParam(defaultValue = "10") @Min(1) @Max(200) Integer size) {
+                                          @RequestParam(defaultValue = "10") @Min(1) @Max(200) Integer size,
+                                          @RequestParam(required = false) String cursor) {
 
-        return itemClient.readAll(ownerId, from, size);
+        return itemClient.readAll(ownerId, from, size, cursor);
     }
 
     @PatchMapping("/{id}")
@@ -48,12 +84,37 @@ public class ItemController {
                                          @RequestParam(value = "from",
                                                  defaultValue = "0") @Min(0) Integer from,
                                          @RequestParam(value = "size", defaultValue = "10")
-                                         @Min(1) @Max(200) Integer size) {
+                                         @Min(1) @Max(200) Integer size,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                         LocalDateTime availableFrom,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                         LocalDateTime availableTo,
+                                         @RequestParam(required = false) String cursor) {
+        if ((availableFrom == null) != (availableTo == null)) {
+            throw new BadRequestException("Период доступности задаётся параметрами availableFrom и availableTo вместе.");
+        }
+        if (availableFrom != null && !availableFrom.isBefore(availableTo)) {
+            throw new BadRequestException("Начало периода должно быть раньше конца. from: " + availableFrom
+                    + " to: " + availableTo);
+        }
         if (text.isBlank()) {
             return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
         }
 
-        return itemClient.search(ownerId, text, from, size);
+        return itemClient.search(ownerId, text, from, size, availableFrom, availableTo, cursor);
+    }
+
+    @GetMapping("/search/suggest")
+    public ResponseEntity<Object> suggest(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                          @RequestParam String prefix,
+                                          @RequestParam(defaultValue = "10") @Min(1) @Max(20) Integer size) {
+        if (prefix.isBlank()) {
+            return new ResponseEntity<>(new ArrayList<>(), HttpStatus.OK);
+        }
+
+        return itemClient.suggest(ownerId, prefix, size);
     }
 
     @PostMapping("/{itemId}/comment")
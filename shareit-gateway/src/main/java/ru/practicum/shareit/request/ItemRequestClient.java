@@ -33,13 +33,13 @@ public class ItemRequestClient extends BaseClient {
         return get("", requestorId);
     }
 
-    public ResponseEntity<Object> readAllOtherUsersRequests(long userId, Integer from, Integer size) {
+    public ResponseEntity<Object> readAllOtherUsersRequests(long userId, Integer from, Integer size, String cursor) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
 
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get("/all?from={from}&size={size}", userId, parameters, cursor);
     }
 
     public ResponseEntity<Object> read(long userId, long id) {
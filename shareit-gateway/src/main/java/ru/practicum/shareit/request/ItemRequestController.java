@@ -31,9 +31,10 @@ public class ItemRequestController {
     public ResponseEntity<Object> readAllOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") long userId,
                                                             @RequestParam(defaultValue = "0") @Min(0) Integer from,
                                                             @RequestParam(defaultValue = "10")
-                                                            @Min(1) @Max(200) Integer size) {
+                                                            @Min(1) @Max(200) Integer size,
+                                                            @RequestParam(required = false) String cursor) {
 
-        return itemRequestClient.readAllOtherUsersRequests(userId, from, size);
+        return itemRequestClient.readAllOtherUsersRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingStatsView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+@Component
+public class BookingArchive {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final boolean enabled;
+
+    public BookingArchive(BookingRepository bookingRepository,
+                          ArchivedBookingRepository archivedBookingRepository,
+                          @Value("${shareit.booking-archive.enabled}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.enabled = enabled;
+    }
+
+    public Optional<ArchivedBooking> findById(long id) {
+        return enabled ? archivedBookingRepository.findById(id) : Optional.empty();
+    }
+
+    public boolean hasApproved(long itemId, long bookerId) {
+        return enabled && archivedBookingRepository.existsByItem_IdAndBooker_IdAndStatus(itemId, bookerId,
+                Status.APPROVED);
+    }
+
+    public Stream<BookingStatsView> streamForStatistics() {
+        return enabled ? archivedBookingRepository.streamForStatistics() : Stream.empty();
+    }
+
+    public Slice<BookingDtoOutput> completeBookerBookings(Slice<BookingDtoOutput> hot, long bookerId,
+                                                          Collection<Status> statuses,
+                                                          LocalDateTime startTo, LocalDateTime endTo,
+                                                          Cursor after, Pageable pageable) {
+        return complete(hot, after, pageable,
+                () -> bookingRepository.countBookerBookings(bookerId, statuses, startTo, endTo),
+                page -> archivedBookingRepository.readAllBookerBookings(page, bookerId, statuses, startTo, endTo,
+                        after.timeBefore(), after.idBefore()));
+    }
+
+    public Slice<BookingDtoOutput> completeOwnerItemBookings(Slice<BookingDtoOutput> hot, long ownerId,
+                                                             Collection<Status> statuses,
+                                                             LocalDateTime startTo, LocalDateTime endTo,
+                                                             Cursor after, Pageable pageable) {
+        return complete(hot, after, pageable,
+                () -> bookingRepository.countOwnerItemsBookings(ownerId, statuses, startTo, endTo),
+                page -> archivedBookingRepository.readAllOwnerItemsBookings(page, ownerId, statuses, startTo, endTo,
+                        after.timeBefore(), after.idBefore()));
+    }
+
+    private Slice<BookingDtoOutput> complete(Slice<BookingDtoOutput> hot, Cursor after, Pageable pageable,
+                                             LongSupplier hotCount,
+                                             Function<Pageable, Slice<ArchivedBooking>> archived) {
+        if (!enabled || hot.hasNext()) {
+            return hot;
+        }
+
+        int missing = pageable.getPageSize() - hot.getNumberOfElements();
+        long offset = after.isKeyset() || hot.hasContent() ? 0
+                : Math.max(0, pageable.getOffset() - hotCount.getAsLong());
+        Slice<ArchivedBooking> tail = archived.apply(new OffsetPageRequest(offset, Math.max(missing, 1)));
+        if (!tail.hasContent()) {
+            return hot;
+        }
+
+        List<BookingDtoOutput> content = new ArrayList<>(hot.getContent());
+        tail.getContent().stream()
+                .limit(missing)
+                .map(BookingMapper::mapToBookingDtoOutput)
+                .forEach(content::add);
+        return new SliceImpl<>(content, pageable, tail.hasNext() || tail.getNumberOfElements() > missing);
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking.archive;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-archive.enabled", havingValue = "true")
+public class BookingPartitionMaintainer {
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("bookings_p(\\d{6})");
+    private static final String COLUMNS = "id, start_date, end_date, item_id, booker_id, status, created, version";
+    private static final String FIND_PARTITIONS = "SELECT c.relname FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = 'bookings'";
+    private static final String FIND_FIRST_UNFINISHED = "SELECT MIN(start_date) FROM bookings " +
+            "WHERE start_date < ? AND (end_date >= ? OR status = 'WAITING')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int monthsAhead;
+    private final Counter created;
+    private final Counter archived;
+
+    public BookingPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${shareit.booking-archive.horizon}") Duration horizon,
+                                      @Value("${shareit.booking-archive.months-ahead}") int monthsAhead,
+                                      MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.horizon = horizon;
+        this.monthsAhead = monthsAhead;
+        this.created = meterRegistry.counter("shareit.booking.archive.partitions");
+        this.archived = meterRegistry.counter("shareit.booking.archive.archived");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-archive.sweep-delay}")
+    public void maintain() {
+        YearMonth cutoff = YearMonth.from(LocalDateTime.now().minus(horizon));
+        YearMonth last = YearMonth.now().plusMonths(monthsAhead);
+        Set<YearMonth> partitions = findPartitions();
+
+        for (YearMonth month = cutoff; !month.isAfter(last); month = month.plusMonths(1)) {
+            if (!partitions.contains(month)) {
+                createPartition(month);
+            }
+        }
+        LocalDateTime archiveBefore = findArchiveBoundary(cutoff.atDay(1).atStartOfDay());
+        for (YearMonth month : partitions) {
+            if (!month.plusMonths(1).atDay(1).atStartOfDay().isAfter(archiveBefore)) {
+                archivePartition(month);
+            }
+        }
+        archiveDefault(archiveBefore);
+    }
+
+    private LocalDateTime findArchiveBoundary(LocalDateTime cutoff) {
+        LocalDateTime firstUnfinished = jdbcTemplate.queryForObject(FIND_FIRST_UNFINISHED, LocalDateTime.class,
+                cutoff, cutoff);
+        return firstUnfinished == null || firstUnfinished.isAfter(cutoff) ? cutoff : firstUnfinished;
+    }
+
+    private Set<YearMonth> findPartitions() {
+        Set<YearMonth> partitions = new TreeSet<>();
+        for (String name : jdbcTemplate.queryForList(FIND_PARTITIONS, String.class)) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                partitions.add(YearMonth.parse(matcher.group(1), PARTITION_SUFFIX));
+            }
+        }
+        return partitions;
+    }
+
+    private void createPartition(YearMonth month) {
+        String table = partitionName(month);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        try {
+            Integer moved = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("LOCK TABLE bookings_default IN ACCESS EXCLUSIVE MODE");
+                jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE bookings INCLUDING DEFAULTS)");
+                jdbcTemplate.execute("ALTER TABLE " + table + " ADD CONSTRAINT ex_" + table + "_item_period " +
+                        "EXCLUDE USING GIST (item_id WITH =, tsrange(start_date, end_date) WITH &&) " +
+                        "WHERE (status IN ('WAITING', 'APPROVED'))");
+                int rows = jdbcTemplate.update("WITH moved AS (DELETE FROM bookings_default " +
+                        "WHERE start_date >= ? AND start_date < ? RETURNING " + COLUMNS + ") " +
+                        "INSERT INTO " + table + " (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved", from, to);
+                jdbcTemplate.execute("ALTER TABLE bookings ATTACH PARTITION " + table +
+                        " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+                return rows;
+            });
+            created.increment();
+            log.debug("Создана секция {} бронирований, перенесено {} строк из секции по умолчанию.", table, moved);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось создать секцию {} бронирований: {}", table, e.getMessage());
+        }
+    }
+
+    private void archivePartition(YearMonth month) {
+        String table = partitionName(month);
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("ALTER TABLE bookings DETACH PARTITION " + table);
+                int moved = jdbcTemplate.update("INSERT INTO bookings_archive (" + COLUMNS + ") " +
+                        "SELECT " + COLUMNS + " FROM " + table);
+                jdbcTemplate.execute("DROP TABLE " + table);
+                return moved;
+            });
+            archived.increment(rows);
+            log.debug("Секция {} перенесена в архив бронирований: {} строк.", table, rows);
+        } catch (DataAccessException e) {
+            log.warn("Не удалось перенести секцию {} в архив бронирований: {}", table, e.getMessage());
+        }
+    }
+
+    private void archiveDefault(LocalDateTime archiveBefore) {
+        Integer rows = transactionTemplate.execute(status -> jdbcTemplate.update("WITH moved AS " +
+                "(DELETE FROM bookings_default WHERE start_date < ? RETURNING " + COLUMNS + ") " +
+                "INSERT INTO bookings_archive (" + COLUMNS + ") SELECT " + COLUMNS + " FROM moved",
+                archiveBefore));
+        if (rows != null && rows > 0) {
+            archived.increment(rows);
+            log.debug("Из секции по умолчанию в архив бронирований перенесено {} строк.", rows);
+        }
+    }
+
+    private String partitionName(YearMonth month) {
+        return "bookings_p" + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -1,53 +1,113 @@
 package ru.practicum.shareit.booking.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDtoBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDtoDecision;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.export.BookingExportFormat;
+import ru.practicum.shareit.booking.export.BookingExporter;
+import ru.practicum.shareit.booking.intake.BookingIntake;
+import ru.practicum.shareit.booking.dto.OwnerBookingStatsDto;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stats.BookingStatistics;
+import ru.practicum.shareit.booking.stream.BookingEventStream;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.Pages;
 
-import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping(path = "/bookings")
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingIntake bookingIntake;
+    private final BookingEventStream bookingEventStream;
+    private final BookingStatistics bookingStatistics;
+    private final BookingExporter bookingExporter;
 
     @PostMapping
-    public BookingDtoOutput create(@RequestHeader("X-Sharer-User-Id") long bookerId,
-                                   @RequestBody BookingDtoInput bookingDtoInput) {
-        return bookingService.create(bookerId, bookingDtoInput);
+    public ResponseEntity<BookingDtoOutput> create(@RequestHeader("X-Sharer-User-Id") long bookerId,
+                                                   @RequestBody BookingDtoInput bookingDtoInput) {
+        BookingDtoOutput booking = bookingIntake.submit(bookerId, bookingDtoInput);
+        if (bookingIntake.isDeferred()) {
+            return ResponseEntity.accepted().body(booking);
+        }
+        return ResponseEntity.ok(booking);
     }
 
     @GetMapping("/{id}")
     public BookingDtoOutput read(@RequestHeader("X-Sharer-User-Id") long userId,
                                  @PathVariable long id) {
-        return bookingService.getById(userId, id);
+        return bookingIntake.findPending(userId, id)
+                .orElseGet(() -> bookingService.getById(userId, id));
     }
 
     @GetMapping
-    public Collection<BookingDtoOutput> readAllBookerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                              @RequestParam(defaultValue = "ALL") String state,
-                                                              @RequestParam(defaultValue = "0") Integer from,
-                                                              @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDtoOutput>> readAllBookerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                        @RequestParam(defaultValue = "ALL") String state,
+                                                                        @RequestParam(defaultValue = "0") Integer from,
+                                                                        @RequestParam(defaultValue = "10") Integer size,
+                                                                        @RequestParam(required = false) String cursor) {
+        Cursor after = Cursor.parse(cursor);
+        Pageable pageable = after.pageable(from, size);
 
-        Pageable pageable = PageRequest.of(from / size, size);
-
-        return bookingService.readAllBookerBookings(userId, state, pageable);
+        return Pages.ok(bookingService.readAllBookerBookings(userId, state, after, pageable), after,
+                booking -> Cursor.encode(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public Collection<BookingDtoOutput> readAllOwnerItemBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
-                                                                 @RequestParam(defaultValue = "ALL") String state,
-                                                                 @RequestParam(defaultValue = "0") Integer from,
-                                                                 @RequestParam(defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDtoOutput>> readAllOwnerItemBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                                           @RequestParam(defaultValue = "0") Integer from,
+                                                                           @RequestParam(defaultValue = "10") Integer size,
+                                                                           @RequestParam(required = false) String cursor) {
+        Cursor after = Cursor.parse(cursor);
+        Pageable pageable = after.pageable(from, size);
+
+        return Pages.ok(bookingService.readAllOwnerItemBookings(ownerId, state, after, pageable), after,
+                booking -> Cursor.encode(booking.getStart(), booking.getId()));
+    }
+
+    @GetMapping("/owner/stats")
+    public OwnerBookingStatsDto readOwnerStats(@RequestHeader("X-Sharer-User-Id") long ownerId) {
+        return bookingStatistics.readOwnerStats(ownerId);
+    }
 
-        Pageable pageable = PageRequest.of(from / size, size);
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnerItemBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                              @RequestHeader(value = "Last-Event-ID", required = false)
+                                              Long lastEventId) {
+        return bookingEventStream.subscribe(ownerId, lastEventId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerItemBookings(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                                         @RequestParam(defaultValue = "csv")
+                                                                         String format) {
+        BookingExportFormat exportFormat = BookingExportFormat.from(format)
+                .orElseThrow(() -> new BadRequestException("Unknown format: " + format));
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings-" + ownerId + "."
+                        + exportFormat.getExtension() + "\"")
+                .body(bookingExporter.export(ownerId, exportFormat));
+    }
 
-        return bookingService.readAllOwnerItemBookings(ownerId, state, pageable);
+    @PatchMapping("/batch")
+    public List<BookingDtoBatchResult> updateApprovals(@RequestHeader("X-Sharer-User-Id") long ownerId,
+                                                       @RequestBody List<BookingDtoDecision> decisions) {
+        return bookingService.updateAll(ownerId, decisions);
     }
 
     @PatchMapping("/{id}")
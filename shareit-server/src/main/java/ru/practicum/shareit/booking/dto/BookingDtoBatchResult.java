@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Status;
+
+@Data
+@AllArgsConstructor
+public class BookingDtoBatchResult {
+    private int index;
+    private long id;
+    private Status status;
+    private String error;
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingEventDto {
+    private long id;
+    private BookingEventType type;
+    private long bookingId;
+    private long itemId;
+    private long bookerId;
+    private Status previousStatus;
+    private Status status;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDateTime created;
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingExportDto {
+    private long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private Status status;
+    private LocalDateTime created;
+    private long itemId;
+    private String itemName;
+    private long bookerId;
+    private String bookerName;
+}
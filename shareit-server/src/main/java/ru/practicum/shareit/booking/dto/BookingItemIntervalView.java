@@ -0,0 +1,5 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingItemIntervalView extends BookingIntervalView {
+    Long getItemId();
+}
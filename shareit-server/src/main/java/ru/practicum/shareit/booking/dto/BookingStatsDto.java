@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class BookingStatsDto {
+    private Long itemId;
+    private Map<Status, Long> bookings;
+    private long bookedMinutes;
+    private double utilization;
+    private Long averageLeadTimeMinutes;
+    private Map<String, Long> leadTime;
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingStatsView {
+    Long getItemId();
+
+    Long getOwnerId();
+
+    Status getStatus();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEndDate();
+
+    LocalDateTime getCreated();
+}
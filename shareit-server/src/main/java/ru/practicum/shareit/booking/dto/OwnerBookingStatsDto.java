@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OwnerBookingStatsDto {
+    private long ownerId;
+    private BookingStatsDto total;
+    private List<BookingStatsDto> items;
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class BookingChangedEvent {
+    private long id;
+    private long itemId;
+    private Status status;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
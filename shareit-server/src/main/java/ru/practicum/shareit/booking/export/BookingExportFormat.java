@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.export;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+@Getter
+public enum BookingExportFormat {
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    BookingExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public static Optional<BookingExportFormat> from(String strFormat) {
+        for (BookingExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(strFormat)) {
+                return Optional.of(format);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.booking.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingExportDto;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Component
+public class BookingExporter {
+    private static final String SELECT_BOOKINGS = "SELECT b.id, b.start_date, b.end_date, b.status, b.created, " +
+            "i.id AS item_id, i.name AS item_name, u.id AS booker_id, u.name AS booker_name " +
+            "FROM %s b " +
+            "JOIN items i ON i.id = b.item_id " +
+            "JOIN users u ON u.id = b.booker_id " +
+            "WHERE i.owner_id = ? " +
+            "ORDER BY b.start_date DESC, b.id DESC";
+    private static final String CSV_HEADER = "id,start,end,status,created,itemId,itemName,bookerId,bookerName";
+    private static final String CSV_LINE_END = "\r\n";
+
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<String> tables;
+    private final Counter exported;
+
+    public BookingExporter(UserRepository userRepository,
+                           ObjectMapper objectMapper,
+                           DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.booking-export.fetch-size}") int fetchSize,
+                           @Value("${shareit.booking-archive.enabled}") boolean archiveEnabled,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.tables = archiveEnabled ? List.of("bookings", "bookings_archive") : List.of("bookings");
+        this.exported = meterRegistry.counter("shareit.booking.export.rows");
+    }
+
+    public StreamingResponseBody export(long ownerId, BookingExportFormat format) {
+        userRepository.findById(ownerId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + ownerId + " не существует!"));
+
+        return out -> write(ownerId, format, out);
+    }
+
+    private void write(long ownerId, BookingExportFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == BookingExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write(CSV_LINE_END);
+        }
+
+        AtomicLong rows = new AtomicLong();
+        try {
+            transactionTemplate.executeWithoutResult(status -> tables.forEach(table ->
+                    jdbcTemplate.query(String.format(SELECT_BOOKINGS, table), resultSet -> {
+                        writeRow(format, mapRow(resultSet), writer);
+                        rows.incrementAndGet();
+                    }, ownerId)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            exported.increment(rows.get());
+        }
+        writer.flush();
+        log.debug("Выгружено {} бронирований владельца {} в формате {}.", rows.get(), ownerId, format);
+    }
+
+    private void writeRow(BookingExportFormat format, BookingExportDto booking, Writer writer) {
+        try {
+            if (format == BookingExportFormat.CSV) {
+                writer.write(String.join(",",
+                        String.valueOf(booking.getId()),
+                        csv(booking.getStart()),
+                        csv(booking.getEnd()),
+                        csv(booking.getStatus()),
+                        csv(booking.getCreated()),
+                        String.valueOf(booking.getItemId()),
+                        csv(booking.getItemName()),
+                        String.valueOf(booking.getBookerId()),
+                        csv(booking.getBookerName())));
+                writer.write(CSV_LINE_END);
+            } else {
+                writer.write(objectMapper.writeValueAsString(booking));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BookingExportDto mapRow(ResultSet resultSet) throws SQLException {
+        return new BookingExportDto(resultSet.getLong("id"),
+                resultSet.getObject("start_date", LocalDateTime.class),
+                resultSet.getObject("end_date", LocalDateTime.class),
+                Status.valueOf(resultSet.getString("status")),
+                resultSet.getObject("created", LocalDateTime.class),
+                resultSet.getLong("item_id"),
+                resultSet.getString("item_name"),
+                resultSet.getLong("booker_id"),
+                resultSet.getString("booker_name"));
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (!text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
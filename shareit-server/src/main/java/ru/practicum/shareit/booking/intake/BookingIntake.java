@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.intake;
+
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+
+import java.util.Optional;
+
+public interface BookingIntake {
+
+    BookingDtoOutput submit(long userId, BookingDtoInput bookingDtoInput);
+
+    boolean isDeferred();
+
+    Optional<BookingDtoOutput> findPending(long userId, long id);
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.intake;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.Optional;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking-intake.mode", havingValue = "sync", matchIfMissing = true)
+public class DirectBookingIntake implements BookingIntake {
+
+    private final BookingService bookingService;
+
+    @Override
+    public BookingDtoOutput submit(long userId, BookingDtoInput bookingDtoInput) {
+        return bookingService.create(userId, bookingDtoInput);
+    }
+
+    @Override
+    public boolean isDeferred() {
+        return false;
+    }
+
+    @Override
+    public Optional<BookingDtoOutput> findPending(long userId, long id) {
+        return Optional.empty();
+    }
+}
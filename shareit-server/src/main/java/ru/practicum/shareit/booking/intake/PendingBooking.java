@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.intake;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.model.Booking;
+
+@Getter
+@AllArgsConstructor
+class PendingBooking {
+    private final Booking booking;
+    private final long ownerId;
+    private final BookingDtoOutput dto;
+}
@@ -0,0 +1,237 @@
+package ru.practicum.shareit.booking.intake;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoInput;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.stream.BookingOutbox;
+import ru.practicum.shareit.exception.BookingConflictException;
+import ru.practicum.shareit.exception.BookingIntakeOverloadedException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking-intake.mode", havingValue = "async")
+public class QueuedBookingIntake implements BookingIntake {
+    private static final String INSERT_BOOKING = "INSERT INTO bookings " +
+            "(id, start_date, end_date, item_id, booker_id, status, created, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final BookingService bookingService;
+    private final BookingOutbox bookingOutbox;
+    private final BookingOverlapIndex bookingOverlapIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BlockingQueue<PendingBooking> queue;
+    private final Map<Long, PendingBooking> pending = new ConcurrentHashMap<>();
+    private final Map<Long, List<PendingBooking>> pendingItems = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final Counter accepted;
+    private final Counter overloaded;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer batchLatency;
+    private Thread writer;
+    private volatile boolean running;
+
+    public QueuedBookingIntake(BookingService bookingService,
+                               BookingOutbox bookingOutbox,
+                               BookingOverlapIndex bookingOverlapIndex,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               @Value("${shareit.booking-intake.capacity}") int capacity,
+                               @Value("${shareit.booking-intake.batch-size}") int batchSize,
+                               MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.bookingOutbox = bookingOutbox;
+        this.bookingOverlapIndex = bookingOverlapIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.accepted = meterRegistry.counter("shareit.booking.intake.accepted");
+        this.overloaded = meterRegistry.counter("shareit.booking.intake.overloaded");
+        this.written = meterRegistry.counter("shareit.booking.intake.written");
+        this.failed = meterRegistry.counter("shareit.booking.intake.failed");
+        this.batchLatency = meterRegistry.timer("shareit.booking.intake.batch");
+        meterRegistry.gauge("shareit.booking.intake.queued", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "booking-intake-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join();
+
+        List<PendingBooking> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @Override
+    public BookingDtoOutput submit(long userId, BookingDtoInput bookingDtoInput) {
+        Booking booking = bookingService.reserve(userId, bookingDtoInput);
+        PendingBooking pendingBooking = new PendingBooking(booking, booking.getItem().getOwner().getId(),
+                BookingMapper.mapToBookingDtoOutput(booking));
+
+        pendingItems.compute(booking.getItem().getId(), (itemId, queued) -> {
+            List<PendingBooking> bookings = queued == null ? new ArrayList<>() : queued;
+            if (bookings.stream().anyMatch(other -> overlaps(other.getBooking(), booking))) {
+                throw new BookingConflictException("Вещь с id " + itemId + " уже забронирована на этот период.");
+            }
+            bookings.add(pendingBooking);
+            pending.put(booking.getId(), pendingBooking);
+            return bookings;
+        });
+        if (!queue.offer(pendingBooking)) {
+            release(pendingBooking);
+            overloaded.increment();
+            throw new BookingIntakeOverloadedException("Очередь бронирований переполнена, повторите попытку позже.");
+        }
+        accepted.increment();
+
+        return pendingBooking.getDto();
+    }
+
+    @Override
+    public boolean isDeferred() {
+        return true;
+    }
+
+    @Override
+    public Optional<BookingDtoOutput> findPending(long userId, long id) {
+        PendingBooking pendingBooking = pending.get(id);
+        if (pendingBooking == null
+                || pendingBooking.getBooking().getBooker().getId() != userId && pendingBooking.getOwnerId() != userId) {
+            return Optional.empty();
+        }
+        return Optional.of(pendingBooking.getDto());
+    }
+
+    private void drain() {
+        List<PendingBooking> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingBooking first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                failed.increment(batch.size());
+                batch.forEach(this::drop);
+                log.error("Ошибка записи пачки бронирований.", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<PendingBooking> batch) {
+        try {
+            batchLatency.record(() -> insert(batch));
+        } catch (DataAccessException e) {
+            log.warn("Пачка из {} бронирований не записана, записываем по одному: {}", batch.size(), e.getMessage());
+            for (PendingBooking pendingBooking : batch) {
+                try {
+                    insert(List.of(pendingBooking));
+                } catch (DataAccessException rowException) {
+                    failed.increment();
+                    drop(pendingBooking);
+                    log.warn("Бронирование с id {} отклонено при записи: {}", pendingBooking.getBooking().getId(),
+                            rowException.getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<PendingBooking> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_BOOKING, batch, batch.size(), (ps, pendingBooking) -> {
+                Booking booking = pendingBooking.getBooking();
+                ps.setLong(1, booking.getId());
+                ps.setObject(2, booking.getStart());
+                ps.setObject(3, booking.getEnd());
+                ps.setLong(4, booking.getItem().getId());
+                ps.setLong(5, booking.getBooker().getId());
+                ps.setString(6, booking.getStatus().name());
+                ps.setObject(7, booking.getCreated());
+                ps.setLong(8, booking.getVersion());
+            });
+            bookingOutbox.appendAll(batch.stream()
+                    .map(PendingBooking::getBooking)
+                    .collect(Collectors.toList()), BookingEventType.CREATED, null);
+            batch.forEach(pendingBooking -> {
+                Booking booking = pendingBooking.getBooking();
+                eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(),
+                        booking.getItem().getId(),
+                        booking.getStatus(),
+                        booking.getStart(),
+                        booking.getEnd()));
+            });
+        });
+        batch.forEach(this::release);
+        written.increment(batch.size());
+    }
+
+    private void drop(PendingBooking pendingBooking) {
+        release(pendingBooking);
+        bookingOverlapIndex.invalidate(pendingBooking.getBooking().getItem().getId());
+    }
+
+    private void release(PendingBooking pendingBooking) {
+        Booking booking = pendingBooking.getBooking();
+        pending.remove(booking.getId());
+        pendingItems.computeIfPresent(booking.getItem().getId(), (itemId, queued) -> {
+            queued.remove(pendingBooking);
+            return queued.isEmpty() ? null : queued;
+        });
+    }
+
+    private static boolean overlaps(Booking queued, Booking booking) {
+        return booking.getStart().isBefore(queued.getEnd()) && booking.getEnd().isAfter(queued.getStart());
+    }
+}
@@ -4,13 +4,20 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
 import ru.practicum.shareit.booking.model.Status;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+
 @UtilityClass
 public class BookingMapper {
 
@@ -20,7 +27,9 @@ public class BookingMapper {
                 bookingDtoInput.getEnd(),
                 item,
                 booker,
-                status);
+                status,
+                LocalDateTime.now(),
+                0);
     }
 
     public BookingDtoOutput mapToBookingDtoOutput(Booking booking) {
@@ -32,6 +41,42 @@ public class BookingMapper {
                 booking.getStatus());
     }
 
+    public BookingDtoOutput mapToBookingDtoOutput(ArchivedBooking booking) {
+        return new BookingDtoOutput(booking.getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                ItemMapper.mapToItemDtoOutput(booking.getItem(), null, null),
+                UserMapper.mapToUserDto(booking.getBooker()),
+                booking.getStatus());
+    }
+
+    public BookingEvent mapToBookingEvent(Booking booking, BookingEventType type, Status previousStatus) {
+        return new BookingEvent(0,
+                booking.getItem().getOwner().getId(),
+                booking.getId(),
+                booking.getItem().getId(),
+                booking.getBooker().getId(),
+                type,
+                previousStatus,
+                type.getStatus(),
+                booking.getStart(),
+                booking.getEnd(),
+                LocalDateTime.now());
+    }
+
+    public BookingEventDto mapToBookingEventDto(BookingEvent event) {
+        return new BookingEventDto(event.getId(),
+                event.getType(),
+                event.getBookingId(),
+                event.getItemId(),
+                event.getBookerId(),
+                event.getPreviousStatus(),
+                event.getStatus(),
+                event.getStart(),
+                event.getEnd(),
+                event.getCreated());
+    }
+
     public BookingDtoForOwner maptoBookingDtoForOwner(Booking booking) {
         if (booking == null) {
             return null;
@@ -39,4 +84,20 @@ public class BookingMapper {
         return new BookingDtoForOwner(booking.getId(),
                 booking.getBooker().getId());
     }
+
+    public BookingDtoForOwner mapToLastBookingDtoForOwner(ItemBookingSummary summary) {
+        if (summary == null || summary.getLastBookingId() == null) {
+            return null;
+        }
+        return new BookingDtoForOwner(summary.getLastBookingId(),
+                summary.getLastBookerId());
+    }
+
+    public BookingDtoForOwner mapToNextBookingDtoForOwner(ItemBookingSummary summary) {
+        if (summary == null || summary.getNextBookingId() == null) {
+            return null;
+        }
+        return new BookingDtoForOwner(summary.getNextBookingId(),
+                summary.getNextBookerId());
+    }
 }
\ No newline at end of file
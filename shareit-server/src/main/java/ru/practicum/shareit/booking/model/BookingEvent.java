@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "booking_events")
+public class BookingEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_events_seq")
+    @SequenceGenerator(name = "booking_events_seq", sequenceName = "booking_events_seq", allocationSize = 50)
+    private long id;
+    @Column(name = "owner_id", nullable = false)
+    private long ownerId;
+    @Column(name = "booking_id", nullable = false)
+    private long bookingId;
+    @Column(name = "item_id", nullable = false)
+    private long itemId;
+    @Column(name = "booker_id", nullable = false)
+    private long bookerId;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private BookingEventType type;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "previous_status")
+    private Status previousStatus;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+    @Column(name = "start_date", nullable = false)
+    private LocalDateTime start;
+    @Column(name = "end_date", nullable = false)
+    private LocalDateTime end;
+    @Column(nullable = false)
+    private LocalDateTime created;
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BookingEventType {
+    CREATED(Status.WAITING),
+    APPROVED(Status.APPROVED),
+    REJECTED(Status.REJECTED),
+    EXPIRED(Status.EXPIRED);
+
+    private final Status status;
+}
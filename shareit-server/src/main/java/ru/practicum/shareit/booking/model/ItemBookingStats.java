@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_booking_stats")
+public class ItemBookingStats {
+    @Id
+    @Column(name = "item_id")
+    private long itemId;
+    @Column(name = "owner_id", nullable = false)
+    private long ownerId;
+    private long waiting;
+    private long approved;
+    private long rejected;
+    private long canceled;
+    private long expired;
+    @Column(name = "lead_time_minutes")
+    private long leadTimeMinutes;
+    @Column(name = "lead_time_count")
+    private long leadTimeCount;
+    @Column(name = "lead_time_hour")
+    private long leadTimeHour;
+    @Column(name = "lead_time_day")
+    private long leadTimeDay;
+    @Column(name = "lead_time_week")
+    private long leadTimeWeek;
+    @Column(name = "lead_time_month")
+    private long leadTimeMonth;
+    @Column(name = "lead_time_longer")
+    private long leadTimeLonger;
+    @Column(name = "booked_minutes")
+    private long bookedMinutes;
+    @Column(name = "first_start")
+    private LocalDateTime firstStart;
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.overlap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Component
+public class BookingOverlapIndex {
+    public static final Set<Status> BLOCKING_STATUSES = EnumSet.of(Status.WAITING, Status.APPROVED);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, IntervalSet> intervals;
+
+    public BookingOverlapIndex(BookingRepository bookingRepository,
+                               @Value("${shareit.booking-overlap.maximum-size}") long maximumSize,
+                               @Value("${shareit.booking-overlap.expire-after-write}") Duration expireAfterWrite,
+                               MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.intervals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, intervals, "bookingIntervals");
+    }
+
+    public boolean overlaps(long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!overlaps(intervals.get(itemId, this::load), start, end)) {
+            return false;
+        }
+        intervals.invalidate(itemId);
+        return overlaps(intervals.get(itemId, this::load), start, end);
+    }
+
+    public void invalidate(long itemId) {
+        intervals.invalidate(itemId);
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        IntervalSet set = intervals.getIfPresent(event.getItemId());
+        if (set == null) {
+            return;
+        }
+        synchronized (set) {
+            if (BLOCKING_STATUSES.contains(event.getStatus())) {
+                set.put(event.getId(), toMicros(event.getStart()), toMicros(event.getEnd()));
+            } else {
+                set.remove(event.getId());
+            }
+        }
+    }
+
+    private boolean overlaps(IntervalSet set, LocalDateTime start, LocalDateTime end) {
+        synchronized (set) {
+            return set.overlaps(toMicros(start), toMicros(end));
+        }
+    }
+
+    private IntervalSet load(long itemId) {
+        IntervalSet set = new IntervalSet();
+        for (BookingIntervalView booking : bookingRepository.findIntervals(itemId, BLOCKING_STATUSES,
+                LocalDateTime.now())) {
+            set.put(booking.getId(), toMicros(booking.getStart()), toMicros(booking.getEndDate()));
+        }
+        return set;
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return ChronoUnit.MICROS.between(EPOCH, time);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.overlap;
+
+import java.util.Arrays;
+
+class IntervalSet {
+    private long[] ids = new long[4];
+    private long[] starts = new long[4];
+    private long[] ends = new long[4];
+    private long[] maxEnds = new long[4];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean overlaps(long start, long end) {
+        int before = countStartingBefore(end);
+        return before > 0 && maxEnds[before - 1] > start;
+    }
+
+    void put(long id, long start, long end) {
+        remove(id);
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            maxEnds = Arrays.copyOf(maxEnds, capacity);
+        }
+        int index = countStartingBefore(start + 1);
+        int tail = size - index;
+        System.arraycopy(ids, index, ids, index + 1, tail);
+        System.arraycopy(starts, index, starts, index + 1, tail);
+        System.arraycopy(ends, index, ends, index + 1, tail);
+        ids[index] = id;
+        starts[index] = start;
+        ends[index] = end;
+        size++;
+        updateMaxEnds(index);
+    }
+
+    void remove(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                int tail = size - i - 1;
+                System.arraycopy(ids, i + 1, ids, i, tail);
+                System.arraycopy(starts, i + 1, starts, i, tail);
+                System.arraycopy(ends, i + 1, ends, i, tail);
+                size--;
+                updateMaxEnds(i);
+                return;
+            }
+        }
+    }
+
+    private int countStartingBefore(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void updateMaxEnds(int from) {
+        long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+}
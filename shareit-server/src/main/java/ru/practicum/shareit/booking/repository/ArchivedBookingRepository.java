@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingStatsView;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Status;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM ArchivedBooking b " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.status IN ?2 " +
+            "AND b.start <= ?3 " +
+            "AND b.end <= ?4 " +
+            "AND b.start <= ?5 " +
+            "AND (b.start < ?5 OR b.id < ?6) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Slice<ArchivedBooking> readAllBookerBookings(Pageable pageable, long bookerId, Collection<Status> statuses,
+                                                 LocalDateTime startTo, LocalDateTime endTo,
+                                                 LocalDateTime startBefore, long idBefore);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM ArchivedBooking b " +
+            "WHERE b.item.owner.id = ?1 " +
+            "AND b.status IN ?2 " +
+            "AND b.start <= ?3 " +
+            "AND b.end <= ?4 " +
+            "AND b.start <= ?5 " +
+            "AND (b.start < ?5 OR b.id < ?6) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Slice<ArchivedBooking> readAllOwnerItemsBookings(Pageable pageable, long ownerId, Collection<Status> statuses,
+                                                     LocalDateTime startTo, LocalDateTime endTo,
+                                                     LocalDateTime startBefore, long idBefore);
+
+    boolean existsByItem_IdAndBooker_IdAndStatus(long itemId, long bookerId, Status status);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b.item.id AS itemId, b.item.owner.id AS ownerId, b.status AS status, b.start AS start, " +
+            "b.end AS endDate, b.created AS created FROM ArchivedBooking b")
+    Stream<BookingStatsView> streamForStatistics();
+}
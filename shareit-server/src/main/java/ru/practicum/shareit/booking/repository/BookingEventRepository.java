@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingEventRepository extends JpaRepository<BookingEvent, Long> {
+    @Query("SELECT e FROM BookingEvent e " +
+            "WHERE e.ownerId = ?1 " +
+            "AND e.id > ?2 " +
+            "AND (e.id > ?3 OR e.created >= ?4) " +
+            "ORDER BY e.id")
+    List<BookingEvent> findReplay(Pageable pageable, long ownerId, long idAfter, long lastEventId,
+                                  LocalDateTime createdFrom);
+
+    @Modifying
+    @Query("DELETE FROM BookingEvent e " +
+            "WHERE e.created < ?1")
+    int deleteCreatedBefore(LocalDateTime createdBefore);
+}
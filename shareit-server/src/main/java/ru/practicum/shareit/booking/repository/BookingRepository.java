@@ -1,69 +1,172 @@
 package ru.practicum.shareit.booking.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingItemIntervalView;
+import ru.practicum.shareit.booking.dto.BookingStatsView;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findAllByBooker_IdOrderByStartDesc(Pageable pageable, long bookerId);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.start <= ?2 " +
+            "AND (b.start < ?2 OR b.id < ?3) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Slice<Booking> readAllBookerBookings(Pageable pageable, long bookerId, LocalDateTime startBefore, long idBefore);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b " +
             "WHERE b.booker.id = ?1 " +
             "AND b.start <= ?2 " +
             "AND b.end >= ?2 " +
-            "ORDER BY b.start DESC")
-    Page<Booking> readAllBookerCurrentBookings(Pageable pageable, long bookerId, LocalDateTime now);
+            "AND b.start <= ?3 " +
+            "AND (b.start < ?3 OR b.id < ?4) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Slice<Booking> readAllBookerCurrentBookings(Pageable pageable, long bookerId, LocalDateTime now,
+                                               LocalDateTime startBefore, long idBefore);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b " +
             "WHERE b.booker.id = ?1 " +
             "AND b.start <= ?2 " +
             "AND b.end <= ?2 " +
-            "ORDER BY b.start DESC")
-    Page<Booking> readAllBookerPastBookings(Pageable pageable, long bookerId, LocalDateTime now);
+            "AND b.start <= ?3 " +
+            "AND (b.start < ?3 OR b.id < ?4) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Slice<Booking> readAllBookerPastBookings(Pageable pageable, long bookerId, LocalDateTime now,
+                                            LocalDateTime startBefore, long idBefore);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b " +
             "WHERE b.booker.id = ?1 " +
             "AND b.start >= ?2 " +
             "AND b.end >= ?2 " +
-            "ORDER BY b.start DESC")
-    Page<Booking> readAllBookerFutureBookings(Pageable pageable, long bookerId, LocalDateTime now);
-
-    Page<Booking> findAllByBooker_IdAndStatusInOrderByStartDesc(Pageable pageable, long bookerId,
-                                                                List<Status> status);
-
-    Page<Booking> findAllByItem_IdInOrderByStartDesc(Pageable pageable, List<Long> itemIds);
+            "AND b.start <= ?3 " +
+            "AND (b.start < ?3 OR b.id < ?4) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Slice<Booking> readAllBookerFutureBookings(Pageable pageable, long bookerId, LocalDateTime now,
+                                              LocalDateTime startBefore, long idBefore);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id IN ?1 " +
-            "AND b.start <= ?2 " +
-            "AND b.end >= ?2 " +
-            "ORDER BY b.start DESC")
-    Page<Booking> readAllOwnerItemsCurrentBookings(Pageable pageable, List<Long> itemIds, LocalDateTime now);
+            "WHERE b.booker.id = ?1 " +
+            "AND b.status IN ?2 " +
+            "AND b.start <= ?3 " +
+            "AND (b.start < ?3 OR b.id < ?4) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Slice<Booking> readAllBookerBookingsByStatus(Pageable pageable, long bookerId, List<Status> status,
+                                                LocalDateTime startBefore, long idBefore);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id IN ?1 " +
-            "AND b.start <= ?2 " +
-            "AND b.end <= ?2 " +
-            "ORDER BY b.start DESC")
-    Page<Booking> readAllOwnerItemsPastBookings(Pageable pageable, List<Long> itemIds, LocalDateTime now);
+            "WHERE b.item.owner.id = ?1 " +
+            "AND b.status IN ?2 " +
+            "AND b.start >= ?3 " +
+            "AND b.start <= ?4 " +
+            "AND b.end >= ?5 " +
+            "AND b.end <= ?6 " +
+            "AND b.start <= ?7 " +
+            "AND (b.start < ?7 OR b.id < ?8) " +
+            "ORDER BY b.start DESC, b.id DESC")
+    Slice<Booking> readAllOwnerItemsBookings(Pageable pageable, long ownerId, Collection<Status> statuses,
+                                             LocalDateTime startFrom, LocalDateTime startTo,
+                                             LocalDateTime endFrom, LocalDateTime endTo,
+                                             LocalDateTime startBefore, long idBefore);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id IN ?1 " +
-            "AND b.start >= ?2 " +
-            "AND b.end >= ?2 " +
-            "ORDER BY b.start DESC")
-    Page<Booking> readAllOwnerItemsFutureBookings(Pageable pageable, List<Long> itemIds, LocalDateTime now);
+    @Query("SELECT COUNT(b) FROM Booking b " +
+            "WHERE b.booker.id = ?1 " +
+            "AND b.status IN ?2 " +
+            "AND b.start <= ?3 " +
+            "AND b.end <= ?4")
+    long countBookerBookings(long bookerId, Collection<Status> statuses, LocalDateTime startTo, LocalDateTime endTo);
 
-    Page<Booking> findAllByItem_IdInAndStatusInOrderByStartDesc(Pageable pageable, List<Long> itemIds,
-                                                                List<Status> status);
+    @Query("SELECT COUNT(b) FROM Booking b " +
+            "WHERE b.item.owner.id = ?1 " +
+            "AND b.status IN ?2 " +
+            "AND b.start <= ?3 " +
+            "AND b.end <= ?4")
+    long countOwnerItemsBookings(long ownerId, Collection<Status> statuses, LocalDateTime startTo,
+                                 LocalDateTime endTo);
 
     List<Booking> findAllByItem_Id(long itemId);
-}
\ No newline at end of file
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findAllWithItemByIdIn(Collection<Long> ids);
+
+    @Query(value = "SELECT r.item_id AS itemId, r.id AS id, r.booker_id AS bookerId, r.start_date AS start, " +
+            "r.end_date AS endDate, r.is_last AS last " +
+            "FROM (SELECT b.item_id, b.id, b.booker_id, b.start_date, b.end_date, b.start_date < ?2 AS is_last, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.start_date < ?2 " +
+            "ORDER BY CASE WHEN b.start_date < ?2 THEN b.end_date END DESC, b.start_date, b.id) AS rn " +
+            "FROM bookings b " +
+            "WHERE b.item_id IN ?1 " +
+            "AND b.status = 'APPROVED' " +
+            "AND b.start_date <> ?2) r " +
+            "WHERE r.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextApprovedBookings(Collection<Long> itemIds, LocalDateTime now);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.item.id IN ?1 AND b.status = 'APPROVED' AND b.start < ?3 AND b.end > ?2")
+    List<Long> findItemIdsBookedBetween(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS endDate FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status IN ?2 AND b.end > ?3 " +
+            "ORDER BY b.start")
+    List<BookingIntervalView> findIntervals(long itemId, Collection<Status> statuses, LocalDateTime endAfter);
+
+    @Query("SELECT b.item.id AS itemId, b.id AS id, b.start AS start, b.end AS endDate FROM Booking b " +
+            "WHERE b.item.id IN ?1 AND b.status IN ?2 AND b.end > ?3 " +
+            "ORDER BY b.item.id, b.start")
+    List<BookingItemIntervalView> findItemIntervals(Collection<Long> itemIds, Collection<Status> statuses,
+                                                    LocalDateTime endAfter);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS endDate FROM Booking b " +
+            "WHERE b.item.id = ?1 AND b.status IN ?2 AND b.end > ?3 AND b.start < ?4 " +
+            "ORDER BY b.start")
+    Stream<BookingIntervalView> streamIntervals(long itemId, Collection<Status> statuses,
+                                                LocalDateTime from, LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b.item.id AS itemId, b.item.owner.id AS ownerId, b.status AS status, b.start AS start, " +
+            "b.end AS endDate, b.created AS created FROM Booking b")
+    Stream<BookingStatsView> streamForStatistics();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b " +
+            "WHERE b.status = 'WAITING' " +
+            "AND b.start < ?1 " +
+            "AND (b.start > ?2 OR (b.start = ?2 AND b.id > ?3)) " +
+            "ORDER BY b.start, b.id")
+    List<Booking> findWaitingForExpiry(LocalDateTime startBefore, LocalDateTime startAfter, long idAfter,
+                                       Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = 'EXPIRED', b.version = b.version + 1 " +
+            "WHERE b.id IN ?1 AND b.status = 'WAITING'")
+    int expire(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = ?2, b.version = b.version + 1 " +
+            "WHERE b.id IN ?1 AND b.status = ?3")
+    int decide(Collection<Long> ids, Status status, Status previousStatus);
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ItemBookingStats;
+
+@Repository
+public interface ItemBookingStatsRepository extends JpaRepository<ItemBookingStats, Long> {
+}
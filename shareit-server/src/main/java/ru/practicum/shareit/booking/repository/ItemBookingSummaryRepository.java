@@ -0,0 +1,39 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+    List<ItemBookingSummary> findAllByItemIdIn(Collection<Long> itemIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO item_booking_summaries (item_id) " +
+            "SELECT i.id FROM items i " +
+            "WHERE i.id IN ?1", nativeQuery = true)
+    void insertEmpty(Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s " +
+            "WHERE s.itemId = ?1")
+    Optional<ItemBookingSummary> findForUpdate(long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemBookingSummary s " +
+            "WHERE s.itemId IN ?1 " +
+            "ORDER BY s.itemId")
+    List<ItemBookingSummary> findAllForUpdate(Collection<Long> itemIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ItemBookingSummary> findTop500ByNextStartLessThanEqualOrderByNextStart(LocalDateTime now);
+}
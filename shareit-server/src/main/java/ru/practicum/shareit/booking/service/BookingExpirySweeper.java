@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Component
+public class BookingExpirySweeper {
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    private final BookingService bookingService;
+    private final Duration gracePeriod;
+    private final int batchSize;
+    private final Counter expired;
+    private final Timer batchLatency;
+
+    public BookingExpirySweeper(BookingService bookingService,
+                                @Value("${shareit.booking-expiry.grace-period}") Duration gracePeriod,
+                                @Value("${shareit.booking-expiry.batch-size}") int batchSize,
+                                MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.expired = meterRegistry.counter("shareit.booking.expiry.expired");
+        this.batchLatency = meterRegistry.timer("shareit.booking.expiry.batch");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.sweep-delay}")
+    public void expireStaleBookings() {
+        LocalDateTime startBefore = LocalDateTime.now().minus(gracePeriod);
+        LocalDateTime startAfter = MIN_TIME;
+        long idAfter = 0;
+        int total = 0;
+        List<Booking> batch;
+        do {
+            LocalDateTime cursorStart = startAfter;
+            long cursorId = idAfter;
+            batch = batchLatency.record(() ->
+                    bookingService.expireWaiting(startBefore, cursorStart, cursorId, batchSize));
+            if (!batch.isEmpty()) {
+                Booking last = batch.get(batch.size() - 1);
+                startAfter = last.getStart();
+                idAfter = last.getId();
+                expired.increment(batch.size());
+                total += batch.size();
+            }
+        } while (batch.size() == batchSize);
+
+        if (total > 0) {
+            log.debug("Истёк срок подтверждения у {} бронирований.", total);
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingDtoBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDtoDecision;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
 
     BookingDtoOutput create(long userId, BookingDtoInput bookingDtoInput);
 
+    Booking reserve(long userId, BookingDtoInput bookingDtoInput);
+
     BookingDtoOutput getById(long userId, long id);
 
-    List<BookingDtoOutput> readAllBookerBookings(long bookerId, String state, Pageable pageable);
+    Slice<BookingDtoOutput> readAllBookerBookings(long bookerId, String state, Cursor after, Pageable pageable);
 
-    List<BookingDtoOutput> readAllOwnerItemBookings(long ownerId, String state, Pageable pageable);
+    Slice<BookingDtoOutput> readAllOwnerItemBookings(long ownerId, String state, Cursor after, Pageable pageable);
 
     BookingDtoOutput update(long userId, long id, Boolean isApproved);
+
+    List<BookingDtoBatchResult> updateAll(long userId, List<BookingDtoDecision> decisions);
+
+    List<Booking> expireWaiting(LocalDateTime startBefore, LocalDateTime startAfter, long idAfter, int limit);
 }
\ No newline at end of file
@@ -1,24 +1,56 @@
 package ru.practicum.shareit.booking.service;
 
 import lombok.AllArgsConstructor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.dto.BookingDtoBatchResult;
+import ru.practicum.shareit.booking.dto.BookingDtoDecision;
 import ru.practicum.shareit.booking.dto.BookingDtoInput;
 import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingItemIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.stream.BookingOutbox;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.BookingConflictException;
 import ru.practicum.shareit.exception.ItemAvailabilityException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.retry.OptimisticRetry;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.model.Status.*;
@@ -26,56 +58,191 @@ import static ru.practicum.shareit.booking.model.Status.*;
 @Service
 @AllArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final LocalDateTime MIN_TIME = LocalDateTime.of(1, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
 
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
-
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingOverlapIndex bookingOverlapIndex;
+    private final BookingOutbox bookingOutbox;
+    private final BookingArchive bookingArchive;
+    private final OptimisticRetry optimisticRetry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
     public BookingDtoOutput create(long userId, BookingDtoInput bookingDtoInput) {
-
-        if (!isBefore(bookingDtoInput)) {
-            throw new BadRequestException("Ошибка со временем." +
-                    "start: " + bookingDtoInput.getStart() + " end: " + bookingDtoInput.getEnd() + " now: ");
+        Booking booking = newBooking(userId, bookingDtoInput);
+        try {
+            booking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingConflictException("Вещь с id " + booking.getItem().getId()
+                        + " уже забронирована на этот период.");
+            }
+            throw e;
         }
+        bookingOutbox.append(booking, BookingEventType.CREATED, null);
+        publishBookingChanged(booking);
 
-        User booker = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
+        return BookingMapper.mapToBookingDtoOutput(booking);
+    }
 
-        Item item = itemRepository.findById(bookingDtoInput.getItemId())
-                .orElseThrow(() -> new NotFoundException("Вещь с id " + bookingDtoInput.getItemId() + " не найдена"));
+    @Override
+    @Transactional
+    public Booking reserve(long userId, BookingDtoInput bookingDtoInput) {
+        Booking booking = newBooking(userId, bookingDtoInput);
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        booking.setId((Long) session.getFactory()
+                .getIdentifierGenerator(Booking.class.getName())
+                .generate(session, booking));
 
-        if (item.getOwner().getId() == userId) {
-            throw new NotFoundException("Повторное бронирование невозможно.");
-        }
-        if (!item.getAvailable()) {
-            throw new BadRequestException("Ошибка бронирования!");
+        return booking;
+    }
+
+    @Override
+    @Transactional
+    public BookingDtoOutput getById(long userId, long id) {
+        Optional<Booking> booking = bookingRepository.findById(id);
+        if (booking.isEmpty()) {
+            ArchivedBooking archivedBooking = bookingArchive.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Бронирования с id " + id + " не существует!"));
+            checkParticipant(userId, id, archivedBooking.getBooker().getId(),
+                    archivedBooking.getItem().getOwner().getId());
+            return BookingMapper.mapToBookingDtoOutput(archivedBooking);
         }
 
-        Booking booking = BookingMapper.mapToBooking(bookingDtoInput, item, booker, WAITING);
-        return BookingMapper.mapToBookingDtoOutput(bookingRepository.save(booking));
+        checkParticipant(userId, id, booking.get().getBooker().getId(), booking.get().getItem().getOwner().getId());
+        return BookingMapper.mapToBookingDtoOutput(booking.get());
+    }
+
+    @Override
+    public BookingDtoOutput update(long userId, long id, Boolean isApproved) {
+        return optimisticRetry.execute(() -> approve(userId, id, isApproved));
+    }
+
+    @Override
+    public List<BookingDtoBatchResult> updateAll(long userId, List<BookingDtoDecision> decisions) {
+        return optimisticRetry.execute(() -> decideAll(userId, decisions));
     }
 
     @Override
     @Transactional
-    public BookingDtoOutput getById(long userId, long id) {
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new NotFoundException("Бронирования с id " + id + " не существует!"));
+    public Slice<BookingDtoOutput> readAllBookerBookings(long bookerId, String state, Cursor after,
+                                                         Pageable pageable) {
+        userRepository.findById(bookerId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + bookerId + " не существует!"));
 
-        long bookerId = booking.getBooker().getId();
-        long ownerId = booking.getItem().getOwner().getId();
+        LocalDateTime now = LocalDateTime.now();
+        switch (state) {
+            case "CURRENT":
+                return bookingRepository.readAllBookerCurrentBookings(pageable, bookerId, now,
+                                after.timeBefore(), after.idBefore())
+                        .map(BookingMapper::mapToBookingDtoOutput);
+            case "PAST":
+                return bookingArchive.completeBookerBookings(
+                        bookingRepository.readAllBookerPastBookings(pageable, bookerId, now,
+                                        after.timeBefore(), after.idBefore())
+                                .map(BookingMapper::mapToBookingDtoOutput),
+                        bookerId, EnumSet.allOf(Status.class), now, now, after, pageable);
+            case "FUTURE":
+                return bookingRepository.readAllBookerFutureBookings(pageable, bookerId, now,
+                                after.timeBefore(), after.idBefore())
+                        .map(BookingMapper::mapToBookingDtoOutput);
+            case "WAITING":
+                return readAllBookerBookingsByStatus(bookerId, WAITING, after, pageable);
+            case "REJECTED":
+                return readAllBookerBookingsByStatus(bookerId, REJECTED, after, pageable);
+            case "EXPIRED":
+                return readAllBookerBookingsByStatus(bookerId, EXPIRED, after, pageable);
+            default:
+                return bookingArchive.completeBookerBookings(
+                        bookingRepository.readAllBookerBookings(pageable, bookerId,
+                                        after.timeBefore(), after.idBefore())
+                                .map(BookingMapper::mapToBookingDtoOutput),
+                        bookerId, EnumSet.allOf(Status.class), MAX_TIME, MAX_TIME, after, pageable);
+        }
+    }
 
-        if (bookerId != userId && ownerId != userId) {
-            throw new NotFoundException("Бронирование с id " + id + " не найдено для пользователя с id " + userId + ".");
+    @Override
+    @Transactional
+    public Slice<BookingDtoOutput> readAllOwnerItemBookings(long ownerId, String state, Cursor after,
+                                                             Pageable pageable) {
+        userRepository.findById(ownerId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + ownerId + " не существует!"));
+
+        LocalDateTime now = LocalDateTime.now();
+        Collection<Status> statuses = EnumSet.allOf(Status.class);
+        LocalDateTime startFrom = MIN_TIME;
+        LocalDateTime startTo = MAX_TIME;
+        LocalDateTime endFrom = MIN_TIME;
+        LocalDateTime endTo = MAX_TIME;
+        boolean archived = true;
+
+        switch (state) {
+            case "CURRENT":
+                startTo = now;
+                endFrom = now;
+                archived = false;
+                break;
+            case "PAST":
+                startTo = now;
+                endTo = now;
+                break;
+            case "FUTURE":
+                startFrom = now;
+                endFrom = now;
+                archived = false;
+                break;
+            case "WAITING":
+                statuses = List.of(WAITING);
+                break;
+            case "REJECTED":
+                statuses = List.of(REJECTED);
+                break;
+            case "EXPIRED":
+                statuses = List.of(EXPIRED);
+                break;
+            default:
+                break;
         }
-        return BookingMapper.mapToBookingDtoOutput(booking);
+
+        Slice<BookingDtoOutput> bookings = bookingRepository.readAllOwnerItemsBookings(pageable, ownerId, statuses,
+                        startFrom, startTo, endFrom, endTo, after.timeBefore(), after.idBefore())
+                .map(BookingMapper::mapToBookingDtoOutput);
+        if (!archived) {
+            return bookings;
+        }
+        return bookingArchive.completeOwnerItemBookings(bookings, ownerId, statuses, startTo, endTo, after, pageable);
     }
 
     @Override
     @Transactional
-    public BookingDtoOutput update(long userId, long id, Boolean isApproved) {
+    public List<Booking> expireWaiting(LocalDateTime startBefore, LocalDateTime startAfter, long idAfter,
+                                       int limit) {
+        List<Booking> bookings = bookingRepository.findWaitingForExpiry(startBefore, startAfter, idAfter,
+                PageRequest.of(0, limit));
+        if (bookings.isEmpty()) {
+            return bookings;
+        }
+
+        bookingRepository.expire(bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList()));
+        bookingOutbox.appendAll(bookings, BookingEventType.EXPIRED, WAITING);
+        bookings.forEach(booking -> eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(),
+                booking.getItem().getId(),
+                EXPIRED,
+                booking.getStart(),
+                booking.getEnd())));
+        return bookings;
+    }
+
+    private BookingDtoOutput approve(long userId, long id, Boolean isApproved) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
 
@@ -90,121 +257,242 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus().equals(APPROVED)) {
             throw new ItemAvailabilityException("Бронирование уже подтверждено.");
         }
+        if (booking.getStatus().equals(EXPIRED)) {
+            throw new ItemAvailabilityException("Срок подтверждения бронирования истёк.");
+        }
 
+        Status previousStatus = booking.getStatus();
         if (isApproved) {
+            Item item = booking.getItem();
+            if (itemRepository.incrementVersion(item.getId(), item.getVersion()) == 0) {
+                throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+            }
+            if (overlapsBlocking(booking)) {
+                throw new BookingConflictException("Вещь с id " + booking.getItem().getId()
+                        + " уже забронирована на этот период.");
+            }
             booking.setStatus(APPROVED);
         } else {
             booking.setStatus(REJECTED);
         }
 
-        return BookingMapper.mapToBookingDtoOutput(bookingRepository.save(booking));
-    }
+        Booking updatedBooking;
+        try {
+            updatedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new BookingConflictException("Вещь с id " + booking.getItem().getId()
+                        + " уже забронирована на этот период.");
+            }
+            throw e;
+        }
+        itemBookingSummaryService.refresh(updatedBooking.getItem().getId());
+        bookingOutbox.append(updatedBooking, isApproved ? BookingEventType.APPROVED : BookingEventType.REJECTED,
+                previousStatus);
+        publishBookingChanged(updatedBooking);
 
-    @Override
-    @Transactional
-    public List<BookingDtoOutput> readAllBookerBookings(long bookerId, String state, Pageable pageable) {
-        userRepository.findById(bookerId)
-                .orElseThrow(() -> new NotFoundException("Пользователя с id " + bookerId + " не существует!"));
+        return BookingMapper.mapToBookingDtoOutput(updatedBooking);
+    }
 
-        switch (state) {
-            case "CURRENT":
-                return bookingRepository.readAllBookerCurrentBookings(pageable, bookerId, LocalDateTime.now())
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case "PAST":
-                return bookingRepository.readAllBookerPastBookings(pageable, bookerId, LocalDateTime.now())
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case "FUTURE":
-                return bookingRepository.readAllBookerFutureBookings(pageable, bookerId, LocalDateTime.now())
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case "WAITING":
-                return bookingRepository
-                        .findAllByBooker_IdAndStatusInOrderByStartDesc(pageable, bookerId,
-                                List.of(WAITING))
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case "REJECTED":
-                return bookingRepository
-                        .findAllByBooker_IdAndStatusInOrderByStartDesc(pageable, bookerId,
-                                List.of(REJECTED))
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            default:
-                return bookingRepository.findAllByBooker_IdOrderByStartDesc(pageable, bookerId)
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-        }
+    private Slice<BookingDtoOutput> readAllBookerBookingsByStatus(long bookerId, Status status, Cursor after,
+                                                                   Pageable pageable) {
+        return bookingArchive.completeBookerBookings(
+                bookingRepository.readAllBookerBookingsByStatus(pageable, bookerId, List.of(status),
+                                after.timeBefore(), after.idBefore())
+                        .map(BookingMapper::mapToBookingDtoOutput),
+                bookerId, List.of(status), MAX_TIME, MAX_TIME, after, pageable);
     }
 
-    @Override
-    @Transactional
-    public List<BookingDtoOutput> readAllOwnerItemBookings(long ownerId, String state, Pageable pageable) {
-        userRepository.findById(ownerId)
-                .orElseThrow(() -> new NotFoundException("Пользователя с id " + ownerId + " не существует!"));
+    private List<BookingDtoBatchResult> decideAll(long userId, List<BookingDtoDecision> decisions) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
 
-        List<Long> userItems = itemRepository.findAllByOwnerId(ownerId)
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemByIdIn(decisions.stream()
+                        .map(BookingDtoDecision::getId)
+                        .collect(Collectors.toSet()))
                 .stream()
-                .map(Item::getId)
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        Map<Long, List<BookingIntervalView>> blockingIntervals = findBlockingIntervals(decisions, bookings, userId);
+
+        List<BookingDtoBatchResult> results = new ArrayList<>();
+        Set<Long> decided = new HashSet<>();
+        Map<Long, Item> approvedItems = new LinkedHashMap<>();
+        List<Booking> approved = new ArrayList<>();
+        List<Booking> rejected = new ArrayList<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDtoDecision decision = decisions.get(i);
+            long id = decision.getId();
+            Booking booking = bookings.get(id);
+            if (decision.getApproved() == null) {
+                results.add(new BookingDtoBatchResult(i, id, null, "Не указано решение по бронированию с id " + id
+                        + "."));
+            } else if (booking == null) {
+                results.add(new BookingDtoBatchResult(i, id, null, "Бронирования с id " + id + " не существует!"));
+            } else if (booking.getItem().getOwner().getId() != userId) {
+                results.add(new BookingDtoBatchResult(i, id, null, "Пользователь с id " + userId
+                        + " не может редактировать бронирование с id " + id));
+            } else if (!decided.add(id)) {
+                results.add(new BookingDtoBatchResult(i, id, null, "Повторное решение по бронированию с id " + id
+                        + " в одном запросе."));
+            } else if (booking.getStatus().equals(APPROVED)) {
+                results.add(new BookingDtoBatchResult(i, id, null, "Бронирование уже подтверждено."));
+            } else if (booking.getStatus().equals(EXPIRED)) {
+                results.add(new BookingDtoBatchResult(i, id, null, "Срок подтверждения бронирования истёк."));
+            } else if (Boolean.TRUE.equals(decision.getApproved())) {
+                if (overlaps(blockingIntervals.get(booking.getItem().getId()), booking)
+                        || approved.stream().anyMatch(other -> overlaps(other, booking))) {
+                    results.add(new BookingDtoBatchResult(i, id, null, "Вещь с id " + booking.getItem().getId()
+                            + " уже забронирована на этот период."));
+                } else {
+                    approvedItems.put(booking.getItem().getId(), booking.getItem());
+                    approved.add(booking);
+                    results.add(new BookingDtoBatchResult(i, id, APPROVED, null));
+                }
+            } else {
+                rejected.add(booking);
+                results.add(new BookingDtoBatchResult(i, id, REJECTED, null));
+            }
+        }
+
+        for (Item item : approvedItems.values()) {
+            if (itemRepository.incrementVersion(item.getId(), item.getVersion()) == 0) {
+                throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+            }
+        }
+        decide(approved, APPROVED);
+        decide(rejected, REJECTED);
+        itemBookingSummaryService.refreshAll(approvedItems.keySet());
+
+        return results;
+    }
+
+    private Map<Long, List<BookingIntervalView>> findBlockingIntervals(List<BookingDtoDecision> decisions,
+                                                                       Map<Long, Booking> bookings, long userId) {
+        List<Booking> candidates = decisions.stream()
+                .filter(decision -> Boolean.TRUE.equals(decision.getApproved()))
+                .map(decision -> bookings.get(decision.getId()))
+                .filter(booking -> booking != null && booking.getItem().getOwner().getId() == userId)
                 .collect(Collectors.toList());
 
-        switch (state) {
-            case "CURRENT":
-                return bookingRepository.readAllOwnerItemsCurrentBookings(pageable, userItems, LocalDateTime.now())
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case "PAST":
-                return bookingRepository.readAllOwnerItemsPastBookings(pageable, userItems, LocalDateTime.now())
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case "FUTURE":
-                return bookingRepository.readAllOwnerItemsFutureBookings(pageable, userItems, LocalDateTime.now())
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case "WAITING":
-                return bookingRepository
-                        .findAllByItem_IdInAndStatusInOrderByStartDesc(pageable, userItems,
-                                List.of(WAITING))
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            case "REJECTED":
-                return bookingRepository
-                        .findAllByItem_IdInAndStatusInOrderByStartDesc(pageable, userItems,
-                                List.of(REJECTED))
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
-            default:
-                return bookingRepository.findAllByItem_IdInOrderByStartDesc(pageable, userItems)
-                        .getContent()
-                        .stream()
-                        .map(BookingMapper::mapToBookingDtoOutput)
-                        .collect(Collectors.toList());
+        Map<Long, List<BookingIntervalView>> intervals = new LinkedHashMap<>();
+        candidates.forEach(booking -> intervals.put(booking.getItem().getId(), new ArrayList<>()));
+        if (candidates.isEmpty()) {
+            return intervals;
+        }
+
+        LocalDateTime endAfter = candidates.stream()
+                .map(Booking::getStart)
+                .min(LocalDateTime::compareTo)
+                .orElseThrow();
+        for (BookingItemIntervalView interval : bookingRepository.findItemIntervals(intervals.keySet(),
+                BookingOverlapIndex.BLOCKING_STATUSES, endAfter)) {
+            intervals.get(interval.getItemId()).add(interval);
+        }
+        return intervals;
+    }
+
+    private void decide(List<Booking> bookings, Status status) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        Map<Status, List<Booking>> byPreviousStatus = bookings.stream()
+                .collect(Collectors.groupingBy(Booking::getStatus));
+
+        for (Map.Entry<Status, List<Booking>> entry : byPreviousStatus.entrySet()) {
+            List<Booking> changed = entry.getValue();
+            int updated;
+            try {
+                updated = bookingRepository.decide(changed.stream()
+                        .map(Booking::getId)
+                        .collect(Collectors.toList()), status, entry.getKey());
+            } catch (DataIntegrityViolationException e) {
+                if (isOverlapViolation(e)) {
+                    throw new BookingConflictException("Бронирования " + changed.stream()
+                            .map(booking -> String.valueOf(booking.getId()))
+                            .collect(Collectors.joining(", ")) + " пересекаются с другими бронированиями.");
+                }
+                throw e;
+            }
+            if (updated != changed.size()) {
+                throw new ObjectOptimisticLockingFailureException(Booking.class, changed.get(0).getId());
+            }
+        }
+
+        BookingEventType type = status == APPROVED ? BookingEventType.APPROVED : BookingEventType.REJECTED;
+        byPreviousStatus.forEach((previousStatus, changed) -> bookingOutbox.appendAll(changed, type, previousStatus));
+        bookings.forEach(booking -> eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(),
+                booking.getItem().getId(),
+                status,
+                booking.getStart(),
+                booking.getEnd())));
+    }
+
+    private boolean overlaps(List<BookingIntervalView> intervals, Booking booking) {
+        return intervals.stream()
+                .anyMatch(interval -> interval.getId() != booking.getId()
+                        && interval.getStart().isBefore(booking.getEnd())
+                        && interval.getEndDate().isAfter(booking.getStart()));
+    }
+
+    private boolean overlaps(Booking other, Booking booking) {
+        return other.getItem().getId() == booking.getItem().getId()
+                && other.getStart().isBefore(booking.getEnd())
+                && other.getEnd().isAfter(booking.getStart());
+    }
+
+    private void checkParticipant(long userId, long id, long bookerId, long ownerId) {
+        if (bookerId != userId && ownerId != userId) {
+            throw new NotFoundException("Бронирование с id " + id + " не найдено для пользователя с id " + userId + ".");
         }
     }
 
+    private Booking newBooking(long userId, BookingDtoInput bookingDtoInput) {
+        if (!isBefore(bookingDtoInput)) {
+            throw new BadRequestException("Ошибка со временем." +
+                    "start: " + bookingDtoInput.getStart() + " end: " + bookingDtoInput.getEnd() + " now: ");
+        }
+
+        User booker = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
+
+        Item item = itemRepository.findById(bookingDtoInput.getItemId())
+                .orElseThrow(() -> new NotFoundException("Вещь с id " + bookingDtoInput.getItemId() + " не найдена"));
+
+        if (item.getOwner().getId() == userId) {
+            throw new NotFoundException("Повторное бронирование невозможно.");
+        }
+        if (!item.getAvailable()) {
+            throw new BadRequestException("Ошибка бронирования!");
+        }
+        if (bookingOverlapIndex.overlaps(item.getId(), bookingDtoInput.getStart(), bookingDtoInput.getEnd())) {
+            throw new BookingConflictException("Вещь с id " + item.getId() + " уже забронирована на этот период.");
+        }
+
+        return BookingMapper.mapToBooking(bookingDtoInput, item, booker, WAITING);
+    }
+
+    private boolean overlapsBlocking(Booking booking) {
+        return bookingRepository.findIntervals(booking.getItem().getId(), BookingOverlapIndex.BLOCKING_STATUSES,
+                booking.getStart())
+                .stream()
+                .anyMatch(interval -> interval.getId() != booking.getId()
+                        && interval.getStart().isBefore(booking.getEnd()));
+    }
+
+    private void publishBookingChanged(Booking booking) {
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(),
+                booking.getItem().getId(),
+                booking.getStatus(),
+                booking.getStart(),
+                booking.getEnd()));
+    }
+
+    private boolean isOverlapViolation(DataIntegrityViolationException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState());
+    }
+
     private boolean isBefore(BookingDtoInput dto) {
         return dto.getStart().isBefore(dto.getEnd());
     }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ItemBookingSummaryService {
+
+    void createAll(Collection<Long> itemIds);
+
+    void refresh(long itemId);
+
+    void refreshAll(Collection<Long> itemIds);
+
+    int rollOverStarted();
+
+    Map<Long, ItemBookingSummary> getAll(List<Long> itemIds);
+}
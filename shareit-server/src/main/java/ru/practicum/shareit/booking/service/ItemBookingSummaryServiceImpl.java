@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.ItemBookingView;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@AllArgsConstructor
+public class ItemBookingSummaryServiceImpl implements ItemBookingSummaryService {
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+
+    @Override
+    @Transactional
+    public void createAll(Collection<Long> itemIds) {
+        summaryRepository.insertEmpty(itemIds);
+    }
+
+    @Override
+    @Transactional
+    public void refresh(long itemId) {
+        summaryRepository.findForUpdate(itemId);
+        summaryRepository.saveAll(compute(List.of(itemId), LocalDateTime.now()).values());
+    }
+
+    @Override
+    @Transactional
+    public void refreshAll(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        summaryRepository.findAllForUpdate(itemIds);
+        summaryRepository.saveAll(compute(itemIds, LocalDateTime.now()).values());
+    }
+
+    @Override
+    @Transactional
+    public int rollOverStarted() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = summaryRepository.findTop500ByNextStartLessThanEqualOrderByNextStart(now)
+                .stream()
+                .map(ItemBookingSummary::getItemId)
+                .collect(Collectors.toList());
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+
+        summaryRepository.saveAll(compute(itemIds, now).values());
+        return itemIds.size();
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, ItemBookingSummary> getAll(List<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, Function.identity()));
+
+        List<Long> staleItemIds = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId) || isStarted(summaries.get(itemId), now))
+                .collect(Collectors.toList());
+        if (!staleItemIds.isEmpty()) {
+            summaries.putAll(compute(staleItemIds, now));
+        }
+        return summaries;
+    }
+
+    private Map<Long, ItemBookingSummary> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = itemIds.stream()
+                .collect(Collectors.toMap(Function.identity(), itemId -> ItemBookingSummary.builder()
+                        .itemId(itemId)
+                        .build()));
+
+        for (ItemBookingView booking : bookingRepository.findLastAndNextApprovedBookings(itemIds, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItemId());
+            if (booking.getLast()) {
+                summary.setLastBookingId(booking.getId());
+                summary.setLastBookerId(booking.getBookerId());
+                summary.setLastEnd(booking.getEndDate());
+            } else {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextBookerId(booking.getBookerId());
+                summary.setNextStart(booking.getStart());
+            }
+        }
+        return summaries;
+    }
+
+    private boolean isStarted(ItemBookingSummary summary, LocalDateTime now) {
+        return summary.getNextStart() != null && !summary.getNextStart().isAfter(now);
+    }
+}
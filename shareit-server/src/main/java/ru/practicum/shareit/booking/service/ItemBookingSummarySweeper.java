@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@AllArgsConstructor
+public class ItemBookingSummarySweeper {
+
+    private final ItemBookingSummaryService itemBookingSummaryService;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.sweep-delay}")
+    public void rollOverStartedBookings() {
+        int total = 0;
+        int rolled;
+        do {
+            rolled = itemBookingSummaryService.rollOverStarted();
+            total += rolled;
+        } while (rolled > 0);
+
+        if (total > 0) {
+            log.debug("Обновлены сводки бронирований для {} вещей.", total);
+        }
+    }
+}
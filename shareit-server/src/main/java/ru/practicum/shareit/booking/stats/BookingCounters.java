@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.stats;
+
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.model.ItemBookingStats;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+class BookingCounters {
+    private static final LocalDateTime EPOCH = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+    private static final String[] LEAD_TIME_BUCKETS = {"hour", "day", "week", "month", "longer"};
+    private static final long[] LEAD_TIME_BOUNDS = {
+            Duration.ofHours(1).toMinutes(),
+            Duration.ofDays(1).toMinutes(),
+            Duration.ofDays(7).toMinutes(),
+            Duration.ofDays(30).toMinutes()};
+
+    @Getter
+    private final long ownerId;
+    private final Map<Status, LongAdder> statuses = new EnumMap<>(Status.class);
+    private final LongAdder leadTimeMinutes = new LongAdder();
+    private final LongAdder leadTimeCount = new LongAdder();
+    private final LongAdder[] leadTime = new LongAdder[LEAD_TIME_BUCKETS.length];
+    private final LongAdder bookedMinutes = new LongAdder();
+    private final LongAccumulator firstStart = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator lastEnd = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    BookingCounters(long ownerId) {
+        this.ownerId = ownerId;
+        for (Status status : Status.values()) {
+            statuses.put(status, new LongAdder());
+        }
+        for (int i = 0; i < leadTime.length; i++) {
+            leadTime[i] = new LongAdder();
+        }
+    }
+
+    void apply(Status previousStatus, Status status, LocalDateTime start, LocalDateTime end, LocalDateTime created) {
+        if (previousStatus == status) {
+            return;
+        }
+        long minutes = ChronoUnit.MINUTES.between(start, end);
+        if (previousStatus != null) {
+            statuses.get(previousStatus).decrement();
+            if (previousStatus == Status.APPROVED) {
+                bookedMinutes.add(-minutes);
+            }
+        } else if (created != null) {
+            recordLeadTime(Math.max(0, ChronoUnit.MINUTES.between(created, start)));
+        }
+
+        statuses.get(status).increment();
+        if (status == Status.APPROVED) {
+            bookedMinutes.add(minutes);
+            firstStart.accumulate(toEpochMinutes(start));
+            lastEnd.accumulate(toEpochMinutes(end));
+        }
+    }
+
+    void add(ItemBookingStats stats) {
+        statuses.get(Status.WAITING).add(stats.getWaiting());
+        statuses.get(Status.APPROVED).add(stats.getApproved());
+        statuses.get(Status.REJECTED).add(stats.getRejected());
+        statuses.get(Status.CANCELED).add(stats.getCanceled());
+        statuses.get(Status.EXPIRED).add(stats.getExpired());
+        leadTimeMinutes.add(stats.getLeadTimeMinutes());
+        leadTimeCount.add(stats.getLeadTimeCount());
+        leadTime[0].add(stats.getLeadTimeHour());
+        leadTime[1].add(stats.getLeadTimeDay());
+        leadTime[2].add(stats.getLeadTimeWeek());
+        leadTime[3].add(stats.getLeadTimeMonth());
+        leadTime[4].add(stats.getLeadTimeLonger());
+        bookedMinutes.add(stats.getBookedMinutes());
+        if (stats.getFirstStart() != null) {
+            firstStart.accumulate(toEpochMinutes(stats.getFirstStart()));
+        }
+        if (stats.getLastEnd() != null) {
+            lastEnd.accumulate(toEpochMinutes(stats.getLastEnd()));
+        }
+    }
+
+    ItemBookingStats toItemBookingStats(long itemId) {
+        return new ItemBookingStats(itemId,
+                ownerId,
+                statuses.get(Status.WAITING).sum(),
+                statuses.get(Status.APPROVED).sum(),
+                statuses.get(Status.REJECTED).sum(),
+                statuses.get(Status.CANCELED).sum(),
+                statuses.get(Status.EXPIRED).sum(),
+                leadTimeMinutes.sum(),
+                leadTimeCount.sum(),
+                leadTime[0].sum(),
+                leadTime[1].sum(),
+                leadTime[2].sum(),
+                leadTime[3].sum(),
+                leadTime[4].sum(),
+                bookedMinutes.sum(),
+                fromEpochMinutes(firstStart.get(), Long.MAX_VALUE),
+                fromEpochMinutes(lastEnd.get(), Long.MIN_VALUE));
+    }
+
+    BookingStatsDto toDto(Long itemId, int items) {
+        Map<Status, Long> bookings = new EnumMap<>(Status.class);
+        statuses.forEach((status, count) -> bookings.put(status, count.sum()));
+
+        Map<String, Long> leadTimeHistogram = new LinkedHashMap<>();
+        for (int i = 0; i < leadTime.length; i++) {
+            leadTimeHistogram.put(LEAD_TIME_BUCKETS[i], leadTime[i].sum());
+        }
+
+        long count = leadTimeCount.sum();
+        long booked = bookedMinutes.sum();
+        long span = firstStart.get() == Long.MAX_VALUE ? 0 : lastEnd.get() - firstStart.get();
+        return new BookingStatsDto(itemId,
+                bookings,
+                booked,
+                span > 0 ? (double) booked / span / items : 0,
+                count > 0 ? leadTimeMinutes.sum() / count : null,
+                leadTimeHistogram);
+    }
+
+    private void recordLeadTime(long minutes) {
+        leadTimeMinutes.add(minutes);
+        leadTimeCount.increment();
+        int bucket = 0;
+        while (bucket < LEAD_TIME_BOUNDS.length && minutes >= LEAD_TIME_BOUNDS[bucket]) {
+            bucket++;
+        }
+        leadTime[bucket].increment();
+    }
+
+    private static long toEpochMinutes(LocalDateTime time) {
+        return ChronoUnit.MINUTES.between(EPOCH, time);
+    }
+
+    private static LocalDateTime fromEpochMinutes(long minutes, long identity) {
+        return minutes == identity ? null : EPOCH.plusMinutes(minutes);
+    }
+}
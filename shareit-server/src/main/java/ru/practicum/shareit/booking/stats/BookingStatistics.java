@@ -0,0 +1,174 @@
+package ru.practicum.shareit.booking.stats;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.dto.BookingStatsDto;
+import ru.practicum.shareit.booking.dto.BookingStatsView;
+import ru.practicum.shareit.booking.dto.OwnerBookingStatsDto;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.ItemBookingStats;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingStatsRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+public class BookingStatistics {
+    private final ItemBookingStatsRepository itemBookingStatsRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BookingCounters> items = new ConcurrentHashMap<>();
+    private final Map<Long, BookingCounters> owners = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> ownerItems = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public BookingStatistics(ItemBookingStatsRepository itemBookingStatsRepository,
+                             BookingRepository bookingRepository,
+                             BookingArchive bookingArchive,
+                             UserRepository userRepository,
+                             TransactionTemplate transactionTemplate) {
+        this.itemBookingStatsRepository = itemBookingStatsRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingArchive = bookingArchive;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        List<ItemBookingStats> persisted = itemBookingStatsRepository.findAll();
+        if (persisted.isEmpty()) {
+            rebuild();
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            persisted.forEach(stats -> {
+                counters(stats.getItemId(), stats.getOwnerId()).add(stats);
+                owners.get(stats.getOwnerId()).add(stats);
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Загружена статистика бронирований для {} вещей.", persisted.size());
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            items.clear();
+            owners.clear();
+            ownerItems.clear();
+            dirty.clear();
+
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<BookingStatsView> bookings = bookingRepository.streamForStatistics()) {
+                    bookings.forEach(this::apply);
+                }
+                try (Stream<BookingStatsView> bookings = bookingArchive.streamForStatistics()) {
+                    bookings.forEach(this::apply);
+                }
+                itemBookingStatsRepository.deleteAllInBatch();
+            });
+            flush();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Статистика бронирований пересчитана для {} вещей.", items.size());
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        lock.readLock().lock();
+        try {
+            apply(event.getItemId(), event.getOwnerId(), event.getPreviousStatus(), event.getStatus(),
+                    event.getStart(), event.getEnd(), event.getCreated());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-stats.flush-delay}")
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            List<Long> itemIds = new ArrayList<>(dirty);
+            if (itemIds.isEmpty()) {
+                return;
+            }
+            dirty.removeAll(itemIds);
+            List<ItemBookingStats> snapshot = itemIds.stream()
+                    .map(itemId -> items.get(itemId).toItemBookingStats(itemId))
+                    .collect(Collectors.toList());
+            try {
+                transactionTemplate.executeWithoutResult(status -> itemBookingStatsRepository.saveAll(snapshot));
+            } catch (RuntimeException e) {
+                dirty.addAll(itemIds);
+                throw e;
+            }
+            log.debug("Сохранена статистика бронирований для {} вещей.", snapshot.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public OwnerBookingStatsDto readOwnerStats(long ownerId) {
+        userRepository.findById(ownerId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + ownerId + " не существует!"));
+
+        lock.readLock().lock();
+        try {
+            Set<Long> itemIds = ownerItems.getOrDefault(ownerId, Set.of());
+            BookingCounters total = owners.getOrDefault(ownerId, new BookingCounters(ownerId));
+            List<BookingStatsDto> itemStats = itemIds.stream()
+                    .sorted(Comparator.naturalOrder())
+                    .map(itemId -> items.get(itemId).toDto(itemId, 1))
+                    .collect(Collectors.toList());
+            return new OwnerBookingStatsDto(ownerId, total.toDto(null, Math.max(1, itemIds.size())), itemStats);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(BookingStatsView booking) {
+        apply(booking.getItemId(), booking.getOwnerId(), null, booking.getStatus(), booking.getStart(),
+                booking.getEndDate(), booking.getCreated());
+    }
+
+    private void apply(long itemId, long ownerId, Status previousStatus, Status status,
+                       LocalDateTime start, LocalDateTime end, LocalDateTime created) {
+        counters(itemId, ownerId).apply(previousStatus, status, start, end, created);
+        owners.get(ownerId).apply(previousStatus, status, start, end, created);
+        dirty.add(itemId);
+    }
+
+    private BookingCounters counters(long itemId, long ownerId) {
+        owners.computeIfAbsent(ownerId, BookingCounters::new);
+        ownerItems.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(itemId);
+        return items.computeIfAbsent(itemId, id -> new BookingCounters(ownerId));
+    }
+}
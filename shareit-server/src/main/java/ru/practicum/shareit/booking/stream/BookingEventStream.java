@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Component
+public class BookingEventStream {
+    private static final Pageable REPLAY_PAGE = PageRequest.of(0, 100);
+
+    private final BookingEventRepository bookingEventRepository;
+    private final UserRepository userRepository;
+    private final long timeoutMillis;
+    private final Duration replayWindow;
+    private final int bufferSize;
+    private final ExecutorService sender;
+    private final Map<Long, Set<BookingEventSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter overflows;
+
+    public BookingEventStream(BookingEventRepository bookingEventRepository,
+                              UserRepository userRepository,
+                              @Value("${shareit.booking-stream.timeout}") Duration timeout,
+                              @Value("${shareit.booking-stream.replay-window}") Duration replayWindow,
+                              @Value("${shareit.booking-stream.buffer-size}") int bufferSize,
+                              @Value("${shareit.booking-stream.senders}") int senders,
+                              MeterRegistry meterRegistry) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.userRepository = userRepository;
+        this.timeoutMillis = timeout.toMillis();
+        this.replayWindow = replayWindow;
+        this.bufferSize = bufferSize;
+        this.sender = Executors.newFixedThreadPool(senders);
+        this.overflows = meterRegistry.counter("shareit.booking.stream.overflows");
+        meterRegistry.gauge("shareit.booking.stream.subscribers", subscriberCount);
+    }
+
+    public SseEmitter subscribe(long ownerId, Long lastEventId) {
+        userRepository.findById(ownerId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + ownerId + " не существует!"));
+
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        BookingEventSubscriber subscriber = new BookingEventSubscriber(ownerId, emitter, bufferSize, lastEventId);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        subscribers.compute(ownerId, (id, ownerSubscribers) -> {
+            Set<BookingEventSubscriber> set = ownerSubscribers == null ? ConcurrentHashMap.newKeySet()
+                    : ownerSubscribers;
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+        if (lastEventId != null) {
+            schedule(subscriber);
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener
+    public void onBookingEvent(BookingEvent event) {
+        Set<BookingEventSubscriber> ownerSubscribers = subscribers.get(event.getOwnerId());
+        if (ownerSubscribers == null) {
+            return;
+        }
+        BookingEventDto dto = BookingMapper.mapToBookingEventDto(event);
+        for (BookingEventSubscriber subscriber : ownerSubscribers) {
+            if (subscriber.offer(dto)) {
+                schedule(subscriber);
+            } else {
+                overflows.increment();
+                unsubscribe(subscriber);
+                subscriber.getEmitter().complete();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        sender.shutdownNow();
+        subscribers.values().forEach(ownerSubscribers ->
+                ownerSubscribers.forEach(subscriber -> subscriber.getEmitter().complete()));
+    }
+
+    private void schedule(BookingEventSubscriber subscriber) {
+        if (subscriber.getDraining().compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(BookingEventSubscriber subscriber) {
+        try {
+            Long replayAfter = subscriber.takeReplayAfter();
+            if (replayAfter != null) {
+                replay(subscriber, replayAfter);
+            }
+            BookingEventDto event;
+            while ((event = subscriber.getBuffer().poll()) != null) {
+                subscriber.send(event);
+            }
+            subscriber.forgetReplayed();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Подписчик на события бронирований владельца {} отключён: {}", subscriber.getOwnerId(),
+                    e.getMessage());
+            unsubscribe(subscriber);
+            return;
+        } finally {
+            subscriber.getDraining().set(false);
+        }
+
+        if (!subscriber.getBuffer().isEmpty()) {
+            schedule(subscriber);
+        }
+    }
+
+    private void replay(BookingEventSubscriber subscriber, long lastEventId) throws IOException {
+        LocalDateTime createdFrom = bookingEventRepository.findById(lastEventId)
+                .map(event -> event.getCreated().minus(replayWindow))
+                .orElseGet(LocalDateTime::now);
+        long after = 0;
+        List<BookingEvent> page;
+        do {
+            page = bookingEventRepository.findReplay(REPLAY_PAGE, subscriber.getOwnerId(), after, lastEventId,
+                    createdFrom);
+            for (BookingEvent event : page) {
+                if (event.getId() != lastEventId) {
+                    subscriber.sendReplayed(BookingMapper.mapToBookingEventDto(event));
+                }
+                after = event.getId();
+            }
+        } while (page.size() == REPLAY_PAGE.getPageSize());
+    }
+
+    private void unsubscribe(BookingEventSubscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.getOwnerId(), (id, ownerSubscribers) -> {
+            if (ownerSubscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return ownerSubscribers.isEmpty() ? null : ownerSubscribers;
+        });
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Getter
+class BookingEventSubscriber {
+    private final long ownerId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<BookingEventDto> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Set<Long> replayed = new HashSet<>();
+    private Long replayAfter;
+
+    BookingEventSubscriber(long ownerId, SseEmitter emitter, int bufferSize, Long replayAfter) {
+        this.ownerId = ownerId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.replayAfter = replayAfter;
+    }
+
+    boolean offer(BookingEventDto event) {
+        return buffer.offer(event);
+    }
+
+    Long takeReplayAfter() {
+        Long after = replayAfter;
+        replayAfter = null;
+        return after;
+    }
+
+    void sendReplayed(BookingEventDto event) throws IOException {
+        emit(event);
+        replayed.add(event.getId());
+    }
+
+    void send(BookingEventDto event) throws IOException {
+        if (!replayed.contains(event.getId())) {
+            emit(event);
+        }
+    }
+
+    void forgetReplayed() {
+        replayed.clear();
+    }
+
+    private void emit(BookingEventDto event) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(event.getType().name())
+                .data(event));
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+public class BookingEventSweeper {
+    private final BookingEventRepository bookingEventRepository;
+    private final Duration retention;
+
+    public BookingEventSweeper(BookingEventRepository bookingEventRepository,
+                               @Value("${shareit.booking-stream.retention}") Duration retention) {
+        this.bookingEventRepository = bookingEventRepository;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.sweep-delay}")
+    @Transactional
+    public void deleteExpiredEvents() {
+        int deleted = bookingEventRepository.deleteCreatedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.debug("Удалено {} событий бронирований старше {}.", deleted, retention);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.stream;
+
+import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingEvent;
+import ru.practicum.shareit.booking.model.BookingEventType;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@AllArgsConstructor
+public class BookingOutbox {
+
+    private final BookingEventRepository bookingEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void append(Booking booking, BookingEventType type, Status previousStatus) {
+        appendAll(List.of(booking), type, previousStatus);
+    }
+
+    public void appendAll(Collection<Booking> bookings, BookingEventType type, Status previousStatus) {
+        bookingEventRepository.saveAll(bookings.stream()
+                        .map(booking -> BookingMapper.mapToBookingEvent(booking, type, previousStatus))
+                        .collect(Collectors.toList()))
+                .forEach(eventPublisher::publishEvent);
+    }
+}
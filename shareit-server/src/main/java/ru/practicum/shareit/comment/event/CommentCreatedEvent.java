@@ -0,0 +1,11 @@
+package ru.practicum.shareit.comment.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CommentCreatedEvent {
+    private long id;
+    private long itemId;
+}
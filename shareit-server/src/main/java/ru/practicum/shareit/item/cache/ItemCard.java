@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.item.dto.ItemDtoComment;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class ItemCard {
+    private final long ownerId;
+    private final ItemDtoComment ownerView;
+    private final ItemDtoComment publicView;
+    private final LocalDateTime validUntil;
+
+    public ItemDtoComment view(long userId) {
+        return userId == ownerId ? ownerView : publicView;
+    }
+}
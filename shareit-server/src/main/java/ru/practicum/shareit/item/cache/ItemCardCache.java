@@ -0,0 +1,83 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.comment.event.CommentCreatedEvent;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+@Component
+public class ItemCardCache {
+
+    private final Cache<Long, ItemCard> cards;
+
+    public ItemCardCache(@Value("${shareit.item-card-cache.maximum-size}") long maximumSize,
+                         @Value("${shareit.item-card-cache.expire-after-write}") Duration expireAfterWrite,
+                         MeterRegistry meterRegistry) {
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ItemCardExpiry(expireAfterWrite))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "itemCards");
+    }
+
+    public ItemCard get(long itemId, Function<Long, ItemCard> loader) {
+        return cards.get(itemId, loader);
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        cards.invalidate(event.getId());
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        cards.invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onCommentCreated(CommentCreatedEvent event) {
+        cards.invalidate(event.getItemId());
+    }
+
+    private static class ItemCardExpiry implements Expiry<Long, ItemCard> {
+        private final Duration expireAfterWrite;
+
+        ItemCardExpiry(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        @Override
+        public long expireAfterCreate(Long itemId, ItemCard card, long currentTime) {
+            if (card.getValidUntil() == null) {
+                return expireAfterWrite.toNanos();
+            }
+            Duration valid = Duration.between(LocalDateTime.now(), card.getValidUntil());
+            if (valid.isNegative()) {
+                return 0;
+            }
+            return valid.compareTo(expireAfterWrite) < 0 ? valid.toNanos() : expireAfterWrite.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, ItemCard card, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, card, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, ItemCard card, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
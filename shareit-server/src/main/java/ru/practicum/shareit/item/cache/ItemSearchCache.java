@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.item.dto.ItemDtoOutput;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class ItemSearchCache {
+
+    private final Cache<SearchKey, Slice<ItemDtoOutput>> results;
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong bookingVersion = new AtomicLong();
+
+    public ItemSearchCache(@Value("${shareit.item-search-cache.maximum-size}") long maximumSize,
+                           @Value("${shareit.item-search-cache.expire-after-write}") Duration expireAfterWrite,
+                           MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "itemSearch");
+    }
+
+    public static String normalize(String text) {
+        return text.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public Slice<ItemDtoOutput> get(String text, LocalDateTime availableFrom, LocalDateTime availableTo,
+                                    Cursor after, Pageable pageable, Supplier<Slice<ItemDtoOutput>> loader) {
+        SearchKey key = new SearchKey(version.get(), availableFrom == null ? 0 : bookingVersion.get(),
+                text, availableFrom, availableTo, after.isKeyset(), after.idAfter(), pageable.getOffset(),
+                pageable.getPageSize());
+        return results.get(key, ignored -> loader.get());
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        bookingVersion.incrementAndGet();
+    }
+
+    @Data
+    private static class SearchKey {
+        private final long version;
+        private final long bookingVersion;
+        private final String text;
+        private final LocalDateTime availableFrom;
+        private final LocalDateTime availableTo;
+        private final boolean keyset;
+        private final long idAfter;
+        private final long offset;
+        private final int size;
+    }
+}
@@ -1,16 +1,20 @@
 package ru.practicum.shareit.item.controller;
 
 import lombok.AllArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.Pages;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -27,6 +31,18 @@ public class ItemController {
         return itemService.create(userId, itemDtoInput);
     }
 
+    @PostMapping("/batch")
+    public List<ItemDtoBatchResult> createItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @RequestBody List<ItemDtoInput> itemDtoInputs) {
+        return itemService.createAll(userId, itemDtoInputs);
+    }
+
+    @PatchMapping("/batch")
+    public List<ItemDtoBatchResult> updateItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                @RequestBody List<ItemDtoInput> itemDtoInputs) {
+        return itemService.updateAll(userId, itemDtoInputs);
+    }
+
     @PatchMapping("/{id}")
     public ItemDtoRequest updateItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                      @RequestBody ItemDtoInput itemDtoInput, @PathVariable long id) {
@@ -39,21 +55,49 @@ public class ItemController {
         return itemService.getById(userId, id);
     }
 
+    @GetMapping("/{id}/availability")
+    public List<ItemDtoFreeSlot> findFreeSlots(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @PathVariable long id,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(userId, id, from, to);
+    }
+
     @GetMapping
-    public List<ItemDtoComment> findAll(@RequestHeader("X-Sharer-User-Id") long userId,
-                                        @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                        @RequestParam(defaultValue = "10") @Min(1) @Max(200) Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        return itemService.getAll(userId, pageable);
+    public ResponseEntity<List<ItemDtoComment>> findAll(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                        @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                        @RequestParam(defaultValue = "10") @Min(1) @Max(200) Integer size,
+                                                        @RequestParam(required = false) String cursor) {
+        Cursor after = Cursor.parse(cursor);
+        Pageable pageable = after.pageable(from, size);
+        return Pages.ok(itemService.getAll(userId, after, pageable), after,
+                item -> Cursor.encode(item.getId()));
     }
 
     @GetMapping("/search")
-    public List<ItemDtoOutput> search(@RequestParam String text,
-                                      @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
-                                      @RequestParam(value = "size", defaultValue = "10")
-                                      @Min(1) @Max(200) Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        return itemService.search(text, pageable);
+    public ResponseEntity<List<ItemDtoOutput>> search(@RequestParam String text,
+                                                      @RequestParam(value = "from", defaultValue = "0") @Min(0) Integer from,
+                                                      @RequestParam(value = "size", defaultValue = "10")
+                                                      @Min(1) @Max(200) Integer size,
+                                                      @RequestParam(required = false)
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime availableFrom,
+                                                      @RequestParam(required = false)
+                                                      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                      LocalDateTime availableTo,
+                                                      @RequestParam(required = false) String cursor) {
+        Cursor after = Cursor.parse(cursor);
+        Pageable pageable = after.pageable(from, size);
+        return Pages.ok(itemService.search(text, availableFrom, availableTo, after, pageable), after,
+                item -> Cursor.encode(item.getId()));
+    }
+
+    @GetMapping("/search/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam(defaultValue = "10") @Min(1) @Max(20) Integer size) {
+        return itemService.suggest(prefix, size);
     }
 
     @PostMapping("/{itemId}/comment")
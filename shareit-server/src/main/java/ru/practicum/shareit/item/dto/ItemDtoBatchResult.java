@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemDtoBatchResult {
+    private int index;
+    private ItemDtoRequest item;
+    private String error;
+}
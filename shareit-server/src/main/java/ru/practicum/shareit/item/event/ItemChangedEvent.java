@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ItemChangedEvent {
+    private long id;
+    private String name;
+    private String description;
+    private boolean available;
+}
@@ -19,7 +19,8 @@ public class ItemMapper {
                 itemDto.getDescription(),
                 itemDto.getAvailable(),
                 owner,
-                itemRequest);
+                itemRequest,
+                0);
     }
 
     public ItemDtoOutput mapToItemDtoOutput(Item item, BookingDtoForOwner lastBooking,
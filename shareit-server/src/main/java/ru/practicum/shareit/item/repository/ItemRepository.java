@@ -1,27 +1,101 @@
 package ru.practicum.shareit.item.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findAllByOwnerId(long userId);
+    @Modifying
+    @Query("UPDATE Item i SET i.version = i.version + 1 WHERE i.id = ?1 AND i.version = ?2")
+    int incrementVersion(long id, long version);
 
-    Page<Item> findAllByOwnerId(long userId, Pageable pageable);
+    Slice<Item> findAllByOwnerIdAndIdGreaterThanOrderById(long userId, long idAfter, Pageable pageable);
 
     List<Item> findAllByItemRequestId(long itemRequestId);
 
     List<Item> findAllByItemRequestIdIn(List<Long> requests);
 
+    List<Item> findTop1000ByAvailableTrueAndIdGreaterThanOrderById(long id);
+
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = TRUE " +
+            "AND (upper(i.name) LIKE upper(concat('%', ?1, '%')) " +
+            "OR upper(i.description) LIKE upper(concat('%', ?1, '%'))) " +
+            "AND i.id > ?2 " +
+            "ORDER BY i.id")
+    Slice<Item> search(String text, long idAfter, Pageable pageable);
+
     @Query("SELECT i FROM Item i " +
-            "WHERE upper(i.name) LIKE upper(concat('%', ?1, '%')) " +
-            "OR upper(i.description) LIKE upper(concat('%', ?1, '%'))")
-    Page<Item> search(String text, Pageable pageable);
+            "WHERE i.available = TRUE " +
+            "AND (upper(i.name) LIKE upper(concat('%', ?1, '%')) " +
+            "OR upper(i.description) LIKE upper(concat('%', ?1, '%'))) " +
+            "AND i.id > ?2 " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item = i AND b.status = 'APPROVED' AND b.start < ?4 AND b.end > ?3) " +
+            "ORDER BY i.id")
+    Slice<Item> searchAvailable(String text, long idAfter, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = TRUE " +
+            "AND (upper(i.name) LIKE upper(concat('%', ?1, '%')) " +
+            "OR upper(i.description) LIKE upper(concat('%', ?1, '%'))) " +
+            "ORDER BY CASE WHEN upper(i.name) LIKE upper(concat(?1, '%')) THEN 0 " +
+            "WHEN upper(i.name) LIKE upper(concat('%', ?1, '%')) THEN 1 " +
+            "ELSE 2 END, i.id")
+    Slice<Item> searchRanked(String text, Pageable pageable);
+
+    @Query("SELECT i FROM Item i " +
+            "WHERE i.available = TRUE " +
+            "AND (upper(i.name) LIKE upper(concat('%', ?1, '%')) " +
+            "OR upper(i.description) LIKE upper(concat('%', ?1, '%'))) " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b " +
+            "WHERE b.item = i AND b.status = 'APPROVED' AND b.start < ?3 AND b.end > ?2) " +
+            "ORDER BY CASE WHEN upper(i.name) LIKE upper(concat(?1, '%')) THEN 0 " +
+            "WHEN upper(i.name) LIKE upper(concat('%', ?1, '%')) THEN 1 " +
+            "ELSE 2 END, i.id")
+    Slice<Item> searchRankedAvailable(String text, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available " +
+            "AND i.search_vector @@ to_tsquery('simple', ?1) " +
+            "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', ?1)) DESC, i.id",
+            nativeQuery = true)
+    Slice<Item> fullTextSearch(String tsQuery, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available " +
+            "AND i.search_vector @@ to_tsquery('simple', ?1) " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date < ?3 AND b.end_date > ?2) " +
+            "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', ?1)) DESC, i.id",
+            nativeQuery = true)
+    Slice<Item> fullTextSearchAvailable(String tsQuery, LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available " +
+            "AND i.search_vector @@ to_tsquery('simple', ?1) " +
+            "AND i.id > ?2 " +
+            "ORDER BY i.id",
+            nativeQuery = true)
+    Slice<Item> fullTextSearch(String tsQuery, long idAfter, Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available " +
+            "AND i.search_vector @@ to_tsquery('simple', ?1) " +
+            "AND i.id > ?2 " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b " +
+            "WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date < ?4 AND b.end_date > ?3) " +
+            "ORDER BY i.id",
+            nativeQuery = true)
+    Slice<Item> fullTextSearchAvailable(String tsQuery, long idAfter, LocalDateTime from, LocalDateTime to,
+                                        Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+    private final boolean postgres;
+
+    public FullTextItemSearchEngine(ItemRepository itemRepository,
+                                    @Value("${spring.datasource.url}") String datasourceUrl) {
+        this.itemRepository = itemRepository;
+        this.postgres = DatabaseDriver.fromJdbcUrl(datasourceUrl) == DatabaseDriver.POSTGRESQL;
+    }
+
+    @Override
+    public Slice<Item> search(String text, Cursor after, Pageable pageable) {
+        if (!postgres) {
+            return after.isKeyset()
+                    ? itemRepository.search(text.strip(), after.idAfter(), pageable)
+                    : itemRepository.searchRanked(text.strip(), pageable);
+        }
+        String tsQuery = toPrefixTsQuery(text);
+        if (tsQuery.isEmpty()) {
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
+        }
+        return after.isKeyset()
+                ? itemRepository.fullTextSearch(tsQuery, after.idAfter(), pageable)
+                : itemRepository.fullTextSearch(tsQuery, pageable);
+    }
+
+    @Override
+    public Slice<Item> searchAvailable(String text, LocalDateTime from, LocalDateTime to, Cursor after,
+                                       Pageable pageable) {
+        if (!postgres) {
+            return after.isKeyset()
+                    ? itemRepository.searchAvailable(text.strip(), after.idAfter(), from, to, pageable)
+                    : itemRepository.searchRankedAvailable(text.strip(), from, to, pageable);
+        }
+        String tsQuery = toPrefixTsQuery(text);
+        if (tsQuery.isEmpty()) {
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
+        }
+        return after.isKeyset()
+                ? itemRepository.fullTextSearchAvailable(tsQuery, after.idAfter(), from, to, pageable)
+                : itemRepository.fullTextSearchAvailable(tsQuery, from, to, pageable);
+    }
+
+    private String toPrefixTsQuery(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,207 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "index")
+public class IndexedItemSearchEngine implements ItemSearchEngine {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NgramIndex index = new NgramIndex();
+    private final Map<Long, Item> items = new HashMap<>();
+    private final List<ItemChangedEvent> pendingEvents = new ArrayList<>();
+    private boolean building = true;
+    private volatile long buildTimeMillis;
+
+    public IndexedItemSearchEngine(ItemRepository itemRepository, BookingRepository bookingRepository,
+                                   MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        Gauge.builder("shareit.search.index.items", this, engine -> engine.read(engine.index::documentCount))
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.grams", this, engine -> engine.read(engine.index::gramCount))
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.index.postings", this, engine -> engine.read(engine.index::postingCount))
+                .register(meterRegistry);
+        TimeGauge.builder("shareit.search.index.build.time", this, TimeUnit.MILLISECONDS,
+                        engine -> engine.buildTimeMillis)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long startedAt = System.currentTimeMillis();
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findTop1000ByAvailableTrueAndIdGreaterThanOrderById(lastId);
+            lock.writeLock().lock();
+            try {
+                batch.forEach(item -> put(item.getId(), item.getName(), item.getDescription()));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (!batch.isEmpty());
+
+        lock.writeLock().lock();
+        try {
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+            building = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        buildTimeMillis = System.currentTimeMillis() - startedAt;
+        log.info("Поисковый индекс построен за {} мс, предметов: {}.", buildTimeMillis, items.size());
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (building) {
+                pendingEvents.add(event);
+            } else {
+                apply(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Slice<Item> search(String text, Cursor after, Pageable pageable) {
+        List<Item> found;
+        lock.readLock().lock();
+        try {
+            found = Arrays.stream(index.search(text))
+                    .filter(id -> id > after.idAfter())
+                    .skip(pageable.getOffset())
+                    .limit(pageable.getPageSize() + 1L)
+                    .mapToObj(items::get)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toSlice(found, pageable);
+    }
+
+    @Override
+    public Slice<Item> searchAvailable(String text, LocalDateTime from, LocalDateTime to, Cursor after,
+                                       Pageable pageable) {
+        long[] candidates;
+        lock.readLock().lock();
+        try {
+            candidates = Arrays.stream(index.search(text))
+                    .filter(id -> id > after.idAfter())
+                    .toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long skip = pageable.getOffset();
+        int limit = pageable.getPageSize() + 1;
+        List<Long> ids = new ArrayList<>(limit);
+        for (int chunkStart = 0; chunkStart < candidates.length && ids.size() < limit; chunkStart += CHUNK_SIZE) {
+            List<Long> chunk = Arrays.stream(candidates, chunkStart,
+                            Math.min(chunkStart + CHUNK_SIZE, candidates.length))
+                    .boxed()
+                    .collect(Collectors.toList());
+            Set<Long> booked = new HashSet<>(bookingRepository.findItemIdsBookedBetween(chunk, from, to));
+            for (Long id : chunk) {
+                if (booked.contains(id)) {
+                    continue;
+                }
+                if (skip > 0) {
+                    skip--;
+                } else if (ids.size() < limit) {
+                    ids.add(id);
+                }
+            }
+        }
+
+        List<Item> found;
+        lock.readLock().lock();
+        try {
+            found = ids.stream()
+                    .map(items::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+        return toSlice(found, pageable);
+    }
+
+    private Slice<Item> toSlice(List<Item> found, Pageable pageable) {
+        boolean hasNext = found.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? found.subList(0, pageable.getPageSize()) : found, pageable, hasNext);
+    }
+
+    private void apply(ItemChangedEvent event) {
+        if (event.isAvailable()) {
+            put(event.getId(), event.getName(), event.getDescription());
+        } else {
+            index.remove(event.getId());
+            items.remove(event.getId());
+        }
+    }
+
+    private void put(long id, String name, String description) {
+        index.put(id, name + "\n" + description);
+        items.put(id, Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(true)
+                .build());
+    }
+
+    private double read(LongSupplier supplier) {
+        lock.readLock().lock();
+        try {
+            return supplier.getAsLong();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+
+public interface ItemSearchEngine {
+
+    Slice<Item> search(String text, Cursor after, Pageable pageable);
+
+    Slice<Item> searchAvailable(String text, LocalDateTime from, LocalDateTime to, Cursor after, Pageable pageable);
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+public class ItemSuggester {
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private final ItemRepository itemRepository;
+    private final Lock lock = new ReentrantLock();
+    private final TokenTrie trie = new TokenTrie(MAX_SUGGESTIONS);
+    private final Map<Long, Set<String>> itemTokens = new HashMap<>();
+    private final List<ItemChangedEvent> pendingEvents = new ArrayList<>();
+    private boolean building = true;
+
+    public ItemSuggester(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        Gauge.builder("shareit.search.suggest.items", this, suggester -> suggester.read(suggester.itemTokens::size))
+                .register(meterRegistry);
+        Gauge.builder("shareit.search.suggest.tokens", this, suggester -> suggester.read(suggester.trie::tokenCount))
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long startedAt = System.currentTimeMillis();
+        long lastId = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findTop1000ByAvailableTrueAndIdGreaterThanOrderById(lastId);
+            lock.lock();
+            try {
+                batch.forEach(item -> put(item.getId(), item.getName()));
+            } finally {
+                lock.unlock();
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (!batch.isEmpty());
+
+        lock.lock();
+        try {
+            pendingEvents.forEach(this::apply);
+            pendingEvents.clear();
+            building = false;
+        } finally {
+            lock.unlock();
+        }
+        log.info("Словарь подсказок построен за {} мс, слов: {}.",
+                System.currentTimeMillis() - startedAt, trie.tokenCount());
+    }
+
+    @TransactionalEventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        lock.lock();
+        try {
+            if (building) {
+                pendingEvents.add(event);
+            } else {
+                apply(event);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String text = prefix.toLowerCase(Locale.ROOT);
+        int wordStart = text.length();
+        while (wordStart > 0 && Character.isLetterOrDigit(text.charAt(wordStart - 1))) {
+            wordStart--;
+        }
+        if (wordStart == text.length()) {
+            return List.of();
+        }
+        String head = text.substring(0, wordStart);
+        List<String> completions;
+        lock.lock();
+        try {
+            completions = trie.complete(text.substring(wordStart), Math.min(limit, MAX_SUGGESTIONS));
+        } finally {
+            lock.unlock();
+        }
+        return completions.stream()
+                .map(token -> head + token)
+                .collect(Collectors.toList());
+    }
+
+    private void apply(ItemChangedEvent event) {
+        if (event.isAvailable()) {
+            put(event.getId(), event.getName());
+        } else {
+            remove(event.getId());
+        }
+    }
+
+    private void put(long id, String name) {
+        remove(id);
+        Set<String> tokens = Arrays.stream(name.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{Nd}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toSet());
+        tokens.forEach(trie::add);
+        itemTokens.put(id, tokens);
+    }
+
+    private void remove(long id) {
+        Set<String> tokens = itemTokens.remove(id);
+        if (tokens != null) {
+            tokens.forEach(trie::remove);
+        }
+    }
+
+    private double read(LongSupplier supplier) {
+        lock.lock();
+        try {
+            return supplier.getAsLong();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+
+import java.time.LocalDateTime;
+
+@Component
+@AllArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Slice<Item> search(String text, Cursor after, Pageable pageable) {
+        return itemRepository.search(text, after.idAfter(), pageable);
+    }
+
+    @Override
+    public Slice<Item> searchAvailable(String text, LocalDateTime from, LocalDateTime to, Cursor after,
+                                       Pageable pageable) {
+        return itemRepository.searchAvailable(text, after.idAfter(), from, to, pageable);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+class NgramIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final Map<Long, LongPostingList> postings = new HashMap<>();
+    private final Map<Long, String> documents = new HashMap<>();
+    private long postingCount;
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    int documentCount() {
+        return documents.size();
+    }
+
+    int gramCount() {
+        return postings.size();
+    }
+
+    long postingCount() {
+        return postingCount;
+    }
+
+    void put(long id, String text) {
+        remove(id);
+        String document = normalize(text);
+        documents.put(id, document);
+        for (long gram : grams(document)) {
+            postings.computeIfAbsent(gram, key -> new LongPostingList()).add(id);
+            postingCount++;
+        }
+    }
+
+    void remove(long id) {
+        String document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (long gram : grams(document)) {
+            LongPostingList list = postings.get(gram);
+            list.remove(id);
+            postingCount--;
+            if (list.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    long[] search(String query) {
+        String text = normalize(query);
+        if (text.length() < GRAM_LENGTH) {
+            return documents.entrySet()
+                    .stream()
+                    .filter(document -> document.getValue().contains(text))
+                    .mapToLong(Map.Entry::getKey)
+                    .sorted()
+                    .toArray();
+        }
+
+        List<LongPostingList> lists = new ArrayList<>();
+        for (long gram : grams(text)) {
+            LongPostingList list = postings.get(gram);
+            if (list == null) {
+                return new long[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(LongPostingList::size));
+
+        long[] candidates = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && candidates.length > 0; i++) {
+            candidates = lists.get(i).intersect(candidates);
+        }
+        return Arrays.stream(candidates)
+                .filter(id -> documents.get(id).contains(text))
+                .toArray();
+    }
+
+    private static long[] grams(String text) {
+        if (text.length() < GRAM_LENGTH) {
+            return new long[0];
+        }
+        long[] grams = new long[text.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+}
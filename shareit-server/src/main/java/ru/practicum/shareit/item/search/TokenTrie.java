@@ -0,0 +1,166 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+class TokenTrie {
+    private static final Comparator<Node> BY_RANK = Comparator.comparingInt((Node node) -> node.count)
+            .reversed()
+            .thenComparing(node -> node.token);
+
+    private final int topSize;
+    private final Node root = new Node(null);
+    private int tokenCount;
+
+    TokenTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    int tokenCount() {
+        return tokenCount;
+    }
+
+    void add(String token) {
+        List<Node> path = path(token, true);
+        Node terminal = path.get(path.size() - 1);
+        if (terminal.count++ == 0) {
+            terminal.token = token;
+            tokenCount++;
+        }
+        for (Node node : path) {
+            promote(node, terminal);
+        }
+    }
+
+    void remove(String token) {
+        List<Node> path = path(token, false);
+        if (path == null) {
+            return;
+        }
+        Node terminal = path.get(path.size() - 1);
+        if (terminal.count == 0) {
+            return;
+        }
+        if (--terminal.count == 0) {
+            terminal.token = null;
+            tokenCount--;
+        }
+        for (Node node : path) {
+            demote(node, terminal);
+        }
+        prune(token, path);
+    }
+
+    List<String> complete(String prefix, int limit) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        if (node.top == null) {
+            node.top = collectTop(node);
+        }
+        return node.top.stream()
+                .limit(limit)
+                .map(top -> top.token)
+                .collect(Collectors.toList());
+    }
+
+    private List<Node> path(String token, boolean create) {
+        List<Node> path = new ArrayList<>(token.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < token.length(); i++) {
+            Node parent = node;
+            node = create
+                    ? parent.children.computeIfAbsent(token.charAt(i), key -> new Node(parent))
+                    : parent.children.get(token.charAt(i));
+            if (node == null) {
+                return null;
+            }
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void promote(Node node, Node terminal) {
+        List<Node> top = node.top;
+        if (top == null) {
+            return;
+        }
+        if (!top.contains(terminal)) {
+            if (top.size() < topSize) {
+                top.add(terminal);
+            } else if (BY_RANK.compare(terminal, top.get(top.size() - 1)) < 0) {
+                top.set(top.size() - 1, terminal);
+            } else {
+                return;
+            }
+        }
+        top.sort(BY_RANK);
+    }
+
+    private void demote(Node node, Node terminal) {
+        List<Node> top = node.top;
+        if (top == null || !top.contains(terminal)) {
+            return;
+        }
+        if (top.size() == topSize) {
+            node.top = null;
+        } else if (terminal.count == 0) {
+            top.remove(terminal);
+        } else {
+            top.sort(BY_RANK);
+        }
+    }
+
+    private void prune(String token, List<Node> path) {
+        for (int i = path.size() - 1; i > 0; i--) {
+            Node node = path.get(i);
+            if (node.count > 0 || !node.children.isEmpty()) {
+                return;
+            }
+            node.parent.children.remove(token.charAt(i - 1));
+        }
+    }
+
+    private List<Node> collectTop(Node start) {
+        PriorityQueue<Node> worst = new PriorityQueue<>(topSize + 1, BY_RANK.reversed());
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (node.count > 0) {
+                worst.add(node);
+                if (worst.size() > topSize) {
+                    worst.poll();
+                }
+            }
+            node.children.values().forEach(stack::push);
+        }
+        List<Node> top = new ArrayList<>(worst);
+        top.sort(BY_RANK);
+        return top;
+    }
+
+    private static class Node {
+        private final Node parent;
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private String token;
+        private int count;
+        private List<Node> top;
+
+        private Node(Node parent) {
+            this.parent = parent;
+        }
+    }
+}
@@ -1,23 +1,35 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.pagination.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
 
     ItemDtoComment getById(long userId, long itemId);
 
-    List<ItemDtoComment> getAll(long userId, Pageable pageable);
+    Slice<ItemDtoComment> getAll(long userId, Cursor after, Pageable pageable);
 
     ItemDtoRequest create(long userId, ItemDtoInput itemDtoInput);
 
     ItemDtoRequest update(long userId, ItemDtoInput itemDtoInput, long itemId);
 
+    List<ItemDtoBatchResult> createAll(long userId, List<ItemDtoInput> itemDtoInputs);
+
+    List<ItemDtoBatchResult> updateAll(long userId, List<ItemDtoInput> itemDtoInputs);
+
     CommentDto comment(long authorId, CommentDto commentDto, long itemId);
 
-    List<ItemDtoOutput> search(String text, Pageable pageable);
+    Slice<ItemDtoOutput> search(String text, LocalDateTime availableFrom, LocalDateTime availableTo,
+                                Cursor after, Pageable pageable);
+
+    List<String> suggest(String prefix, int size);
+
+    List<ItemDtoFreeSlot> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to);
 
 }
\ No newline at end of file
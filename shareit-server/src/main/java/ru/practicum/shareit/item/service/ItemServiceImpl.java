@@ -2,23 +2,39 @@ package ru.practicum.shareit.item.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.dto.BookingDtoForOwner;
+import ru.practicum.shareit.booking.archive.BookingArchive;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.ItemBookingSummary;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingSummaryService;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.comment.event.CommentCreatedEvent;
 import ru.practicum.shareit.comment.mapper.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ItemAvailabilityException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.cache.ItemCard;
+import ru.practicum.shareit.item.cache.ItemCardCache;
+import ru.practicum.shareit.item.cache.ItemSearchCache;
 import ru.practicum.shareit.item.dto.*;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSuggester;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
@@ -26,9 +42,13 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static ru.practicum.shareit.booking.model.Status.APPROVED;
 
@@ -39,9 +59,16 @@ public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingArchive bookingArchive;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
     private final UserRepository userRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemSuggester itemSuggester;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemCardCache itemCardCache;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemBookingSummaryService itemBookingSummaryService;
 
     @Override
     @Transactional
@@ -49,35 +76,31 @@ public class ItemServiceImpl implements ItemService {
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
 
-        Item item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new NotFoundException("Предмета с id " + itemId + " не существует!"));
-
-        BookingDtoForOwner lastBooking = null;
-        BookingDtoForOwner nextBooking = null;
-        long ownerId = item.getOwner().getId();
-
-        if (ownerId == userId) {
-            lastBooking = BookingMapper.maptoBookingDtoForOwner(findLastBooking(itemId));
-            nextBooking = BookingMapper.maptoBookingDtoForOwner(findNextBooking(itemId));
-        }
-        List<CommentDto> comments = findComments(itemId);
-        return ItemMapper.mapToItemDtoWithComments(item, lastBooking, nextBooking, comments);
+        return itemCardCache.get(itemId, this::loadItemCard).view(userId);
     }
 
     @Override
     @Transactional
-    public List<ItemDtoComment> getAll(long userId, Pageable pageable) {
+    public Slice<ItemDtoComment> getAll(long userId, Cursor after, Pageable pageable) {
         userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
-        return itemRepository.findAllByOwnerId(userId, pageable)
-                .getContent()
-                .stream()
-                .map(item -> ItemMapper.mapToItemDtoWithComments(item,
-                        BookingMapper.maptoBookingDtoForOwner(findLastBooking(item.getId())),
-                        BookingMapper.maptoBookingDtoForOwner(findNextBooking(item.getId())),
-                        findComments(item.getId())))
-                .sorted(Comparator.comparingLong(ItemDtoComment::getId))
+
+        Slice<Item> items = itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(userId, after.idAfter(),
+                pageable);
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
                 .collect(Collectors.toList());
+        if (itemIds.isEmpty()) {
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
+        }
+
+        Map<Long, ItemBookingSummary> bookings = itemBookingSummaryService.getAll(itemIds);
+        Map<Long, List<CommentDto>> comments = findComments(itemIds);
+
+        return items.map(item -> ItemMapper.mapToItemDtoWithComments(item,
+                BookingMapper.mapToLastBookingDtoForOwner(bookings.get(item.getId())),
+                BookingMapper.mapToNextBookingDtoForOwner(bookings.get(item.getId())),
+                comments.getOrDefault(item.getId(), List.of())));
     }
 
     @Override
@@ -89,9 +112,11 @@ public class ItemServiceImpl implements ItemService {
         ItemRequest itemRequest = itemRequestRepository.findById(itemDtoInput.getRequestId())
                 .orElse(null);
 
-        Item item = ItemMapper.mapToItem(itemDtoInput, user, itemRequest);
+        Item item = itemRepository.save(ItemMapper.mapToItem(itemDtoInput, user, itemRequest));
+        itemBookingSummaryService.createAll(List.of(item.getId()));
+        publishItemChanged(item);
 
-        return ItemMapper.mapToItemDtoWithRequestId(itemRepository.save(item), getRequestId(item));
+        return ItemMapper.mapToItemDtoWithRequestId(item, getRequestId(item));
     }
 
     @Override
@@ -104,19 +129,77 @@ public class ItemServiceImpl implements ItemService {
             throw new NotFoundException("Нет прав для редактирования вещи.");
         }
 
-        if (itemDtoInput.getName() != null) {
-            updatedItem.setName(itemDtoInput.getName());
-        }
+        applyUpdate(updatedItem, itemDtoInput);
 
-        if (itemDtoInput.getDescription() != null) {
-            updatedItem.setDescription(itemDtoInput.getDescription());
+        Item item = itemRepository.save(updatedItem);
+        publishItemChanged(item);
+
+        return ItemMapper.mapToItemDtoWithRequestId(item, getRequestId(item));
+    }
+
+    @Override
+    @Transactional
+    public List<ItemDtoBatchResult> createAll(long userId, List<ItemDtoInput> itemDtoInputs) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
+
+        Map<Long, ItemRequest> itemRequests = itemRequestRepository.findAllById(itemDtoInputs.stream()
+                        .map(ItemDtoInput::getRequestId)
+                        .filter(requestId -> requestId != 0)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<Item> items = itemRepository.saveAll(itemDtoInputs.stream()
+                .map(itemDtoInput -> ItemMapper.mapToItem(itemDtoInput, user,
+                        itemRequests.get(itemDtoInput.getRequestId())))
+                .collect(Collectors.toList()));
+        itemBookingSummaryService.createAll(items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList()));
+        items.forEach(this::publishItemChanged);
+
+        List<ItemDtoBatchResult> results = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            results.add(new ItemDtoBatchResult(i, ItemMapper.mapToItemDtoWithRequestId(item, getRequestId(item)), null));
         }
+        return results;
+    }
 
-        if (itemDtoInput.getAvailable() != null) {
-            updatedItem.setAvailable(itemDtoInput.getAvailable());
+    @Override
+    @Transactional
+    public List<ItemDtoBatchResult> updateAll(long userId, List<ItemDtoInput> itemDtoInputs) {
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
+
+        Map<Long, Item> items = itemRepository.findAllById(itemDtoInputs.stream()
+                        .map(ItemDtoInput::getId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<ItemDtoBatchResult> results = new ArrayList<>();
+        Map<Long, Item> updatedItems = new LinkedHashMap<>();
+        for (int i = 0; i < itemDtoInputs.size(); i++) {
+            ItemDtoInput itemDtoInput = itemDtoInputs.get(i);
+            Item item = items.get(itemDtoInput.getId());
+            if (item == null) {
+                results.add(new ItemDtoBatchResult(i, null,
+                        "Предмета с id " + itemDtoInput.getId() + " не существует!"));
+            } else if (item.getOwner().getId() != userId) {
+                results.add(new ItemDtoBatchResult(i, null, "Нет прав для редактирования вещи."));
+            } else {
+                applyUpdate(item, itemDtoInput);
+                updatedItems.put(item.getId(), item);
+                results.add(new ItemDtoBatchResult(i, ItemMapper.mapToItemDtoWithRequestId(item, getRequestId(item)),
+                        null));
+            }
         }
 
-        return ItemMapper.mapToItemDtoWithRequestId(itemRepository.save(updatedItem), getRequestId(updatedItem));
+        itemRepository.saveAll(updatedItems.values())
+                .forEach(this::publishItemChanged);
+        return results;
     }
 
     @Override
@@ -134,37 +217,80 @@ public class ItemServiceImpl implements ItemService {
                 .filter(booking -> booking.getStatus() == APPROVED)
                 .collect(Collectors.toList());
 
-        if (itemBookings.isEmpty()) {
-            throw new ItemAvailabilityException("Пользователь с id " + authorId + " не бронировал вещь с id " + itemId + ".");
-        }
-
-        List<Booking> pastOrPresentBookings = itemBookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
-                .collect(Collectors.toList());
-
-        if (pastOrPresentBookings.isEmpty()) {
+        boolean archived = itemBookings.isEmpty() || itemBookings.stream()
+                .noneMatch(booking -> booking.getStart().isBefore(LocalDateTime.now()));
+        if (archived && !bookingArchive.hasApproved(itemId, authorId)) {
+            if (itemBookings.isEmpty()) {
+                throw new ItemAvailabilityException("Пользователь с id " + authorId + " не бронировал вещь с id " + itemId + ".");
+            }
             throw new ItemAvailabilityException("Ошибка бронирования!");
         }
 
         commentDto.setCreated(LocalDateTime.now());
 
-        Comment comment = CommentMapper.mapToComment(commentDto, item, user);
+        Comment comment = commentRepository.save(CommentMapper.mapToComment(commentDto, item, user));
+        eventPublisher.publishEvent(new CommentCreatedEvent(comment.getId(), itemId));
 
-        return CommentMapper.mapToCommentDto(commentRepository.save(comment));
+        return CommentMapper.mapToCommentDto(comment);
     }
 
     @Override
-    @Transactional
-    public List<ItemDtoOutput> search(String text, Pageable pageable) {
+    public Slice<ItemDtoOutput> search(String text, LocalDateTime availableFrom, LocalDateTime availableTo,
+                                       Cursor after, Pageable pageable) {
+        if ((availableFrom == null) != (availableTo == null)) {
+            throw new BadRequestException("Период доступности задаётся параметрами availableFrom и availableTo вместе.");
+        }
+        if (availableFrom != null && !availableFrom.isBefore(availableTo)) {
+            throw new BadRequestException("Начало периода должно быть раньше конца. from: " + availableFrom
+                    + " to: " + availableTo);
+        }
         if (text.isBlank()) {
-            return new ArrayList<>();
+            return new SliceImpl<>(new ArrayList<>(), pageable, false);
         }
-        return itemRepository.search(text, pageable)
-                .getContent()
-                .stream()
-                .filter(Item::getAvailable)
-                .map(item -> ItemMapper.mapToItemDtoOutput(item, null, null))
-                .collect(Collectors.toList());
+        String query = ItemSearchCache.normalize(text);
+        return itemSearchCache.get(query, availableFrom, availableTo, after, pageable,
+                () -> (availableFrom == null
+                        ? itemSearchEngine.search(query, after, pageable)
+                        : itemSearchEngine.searchAvailable(query, availableFrom, availableTo, after, pageable))
+                        .map(item -> ItemMapper.mapToItemDtoOutput(item, null, null)));
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int size) {
+        return itemSuggester.suggest(prefix, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDtoFreeSlot> getAvailability(long userId, long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Начало периода должно быть раньше конца. from: " + from + " to: " + to);
+        }
+        userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Предмета с id " + itemId + " не существует!");
+        }
+
+        List<ItemDtoFreeSlot> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        try (Stream<BookingIntervalView> bookings = bookingRepository.streamIntervals(itemId,
+                BookingOverlapIndex.BLOCKING_STATUSES, from, to)) {
+            Iterator<BookingIntervalView> iterator = bookings.iterator();
+            while (iterator.hasNext() && freeFrom.isBefore(to)) {
+                BookingIntervalView booking = iterator.next();
+                if (booking.getStart().isAfter(freeFrom)) {
+                    slots.add(new ItemDtoFreeSlot(freeFrom, booking.getStart()));
+                }
+                if (booking.getEndDate().isAfter(freeFrom)) {
+                    freeFrom = booking.getEndDate();
+                }
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            slots.add(new ItemDtoFreeSlot(freeFrom, to));
+        }
+        return slots;
     }
 
     private long getRequestId(Item item) {
@@ -175,30 +301,48 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
-    private Booking findLastBooking(long itemId) {
-        List<Booking> itemBookings = bookingRepository.findAllByItem_Id(itemId);
+    private void applyUpdate(Item item, ItemDtoInput itemDtoInput) {
+        if (itemDtoInput.getName() != null) {
+            item.setName(itemDtoInput.getName());
+        }
 
-        return itemBookings.stream()
-                .filter(booking -> booking.getStart().isBefore(LocalDateTime.now()))
-                .filter(booking -> booking.getStatus() == APPROVED)
-                .max(Comparator.comparing(Booking::getEnd))
-                .orElse(null);
+        if (itemDtoInput.getDescription() != null) {
+            item.setDescription(itemDtoInput.getDescription());
+        }
+
+        if (itemDtoInput.getAvailable() != null) {
+            item.setAvailable(itemDtoInput.getAvailable());
+        }
     }
 
-    private Booking findNextBooking(long itemId) {
-        List<Booking> itemBookings = bookingRepository.findAllByItem_Id(itemId);
+    private ItemCard loadItemCard(long itemId) {
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new NotFoundException("Предмета с id " + itemId + " не существует!"));
 
-        return itemBookings.stream()
-                .filter(booking -> booking.getStart().isAfter(LocalDateTime.now()))
-                .filter(booking -> booking.getStatus() == APPROVED)
-                .min(Comparator.comparing(Booking::getStart))
-                .orElse(null);
+        List<Long> itemIds = List.of(itemId);
+        ItemBookingSummary bookings = itemBookingSummaryService.getAll(itemIds).get(itemId);
+        List<CommentDto> comments = findComments(itemIds).getOrDefault(itemId, List.of());
+
+        return new ItemCard(item.getOwner().getId(),
+                ItemMapper.mapToItemDtoWithComments(item,
+                        BookingMapper.mapToLastBookingDtoForOwner(bookings),
+                        BookingMapper.mapToNextBookingDtoForOwner(bookings),
+                        comments),
+                ItemMapper.mapToItemDtoWithComments(item, null, null, comments),
+                bookings.getNextStart());
+    }
+
+    private void publishItemChanged(Item item) {
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable()));
     }
 
-    private List<CommentDto> findComments(long itemId) {
-        return commentRepository.findCommentsByItemId(itemId)
+    private Map<Long, List<CommentDto>> findComments(List<Long> itemIds) {
+        return commentRepository.findAllWithAuthorByItemIdIn(itemIds)
                 .stream()
-                .map(CommentMapper::mapToCommentDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::mapToCommentDto, Collectors.toList())));
     }
 }
\ No newline at end of file
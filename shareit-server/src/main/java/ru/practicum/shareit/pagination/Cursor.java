@@ -0,0 +1,77 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public class Cursor {
+    public static final Cursor NONE = new Cursor(false, null, null);
+
+    private static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final String SEPARATOR = "|";
+
+    private final boolean keyset;
+    private final LocalDateTime time;
+    private final Long id;
+
+    private Cursor(boolean keyset, LocalDateTime time, Long id) {
+        this.keyset = keyset;
+        this.time = time;
+        this.id = id;
+    }
+
+    public static Cursor parse(String token) {
+        if (token == null) {
+            return NONE;
+        }
+        if (token.isBlank()) {
+            return new Cursor(true, null, null);
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf(SEPARATOR);
+            String time = value.substring(0, separator);
+            return new Cursor(true,
+                    time.isEmpty() ? null : LocalDateTime.parse(time),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Некорректный курсор: " + token);
+        }
+    }
+
+    public static String encode(LocalDateTime time, long id) {
+        return encode(time.toString() + SEPARATOR + id);
+    }
+
+    public static String encode(long id) {
+        return encode(SEPARATOR + id);
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isKeyset() {
+        return keyset;
+    }
+
+    public Pageable pageable(int from, int size) {
+        return keyset ? PageRequest.of(0, size) : PageRequest.of(from / size, size);
+    }
+
+    public LocalDateTime timeBefore() {
+        return time == null ? MAX_TIME : time;
+    }
+
+    public long idBefore() {
+        return id == null ? Long.MAX_VALUE : id;
+    }
+
+    public long idAfter() {
+        return id == null ? 0 : id;
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+@UtilityClass
+public class Pages {
+    public final String HAS_NEXT_HEADER = "X-Has-Next";
+    public final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public <T> ResponseEntity<List<T>> ok(Slice<T> slice, Cursor cursor, Function<T, String> nextCursor) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HAS_NEXT_HEADER, String.valueOf(slice.hasNext()));
+        if (cursor.isKeyset() && slice.hasNext()) {
+            List<T> content = slice.getContent();
+            response.header(NEXT_CURSOR_HEADER, nextCursor.apply(content.get(content.size() - 1)));
+        }
+        return response.body(slice.getContent());
+    }
+}
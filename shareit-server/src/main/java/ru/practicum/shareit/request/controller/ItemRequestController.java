@@ -1,10 +1,12 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.Pages;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -13,6 +15,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import java.util.Collection;
+import java.util.List;
 
 
 @Validated
@@ -34,13 +37,16 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public Collection<ItemRequestDtoOutput> readAllOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                                      @RequestParam(defaultValue = "0") @Min(0) Integer from,
-                                                                      @RequestParam(defaultValue = "10")
-                                                                      @Min(1) @Max(200) Integer size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-
-        return itemRequestService.getAllUsersRequests(userId, pageable);
+    public ResponseEntity<List<ItemRequestDtoOutput>> readAllOtherUsersRequests(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                                @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                                                @RequestParam(defaultValue = "10")
+                                                                                @Min(1) @Max(200) Integer size,
+                                                                                @RequestParam(required = false) String cursor) {
+        Cursor after = Cursor.parse(cursor);
+        Pageable pageable = after.pageable(from, size);
+
+        return Pages.ok(itemRequestService.getAllUsersRequests(userId, after, pageable), after,
+                request -> Cursor.encode(request.getCreated(), request.getId()));
     }
 
     @GetMapping("/{id}")
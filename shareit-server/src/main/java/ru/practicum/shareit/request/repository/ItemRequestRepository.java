@@ -1,18 +1,26 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(long requestorId);
 
-    Page<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(long userId, Pageable pageable);
+    @Query("SELECT r FROM ItemRequest r " +
+            "WHERE r.requestor.id <> ?1 " +
+            "AND r.created <= ?2 " +
+            "AND (r.created < ?2 OR r.id < ?3) " +
+            "ORDER BY r.created DESC, r.id DESC")
+    Slice<ItemRequest> readAllOtherUsersRequests(long userId, LocalDateTime createdBefore, long idBefore,
+                                                Pageable pageable);
 
     ItemRequest findByIdOrderByCreatedDesc(long id);
 }
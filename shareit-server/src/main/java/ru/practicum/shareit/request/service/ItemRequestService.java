@@ -1,6 +1,8 @@
 package ru.practicum.shareit.request.service;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 
@@ -14,5 +16,5 @@ public interface ItemRequestService {
 
     List<ItemRequestDtoOutput> getAllByRequestor(long userId);
 
-    List<ItemRequestDtoOutput> getAllUsersRequests(long userId, Pageable pageable);
+    Slice<ItemRequestDtoOutput> getAllUsersRequests(long userId, Cursor after, Pageable pageable);
 }
@@ -2,12 +2,14 @@ package ru.practicum.shareit.request.service;
 
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoOutput;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
@@ -70,21 +72,17 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     @Transactional
-    public List<ItemRequestDtoOutput> getAllUsersRequests(long userId, Pageable pageable) {
+    public Slice<ItemRequestDtoOutput> getAllUsersRequests(long userId, Cursor after, Pageable pageable) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователя с id " + userId + " не существует!"));
 
-        List<ItemRequest> requests = itemRequestRepository
-                .findAllByRequestorIdNotOrderByCreatedDesc(userId, pageable)
-                .getContent();
+        Slice<ItemRequest> requests = itemRequestRepository
+                .readAllOtherUsersRequests(userId, after.timeBefore(), after.idBefore(), pageable);
 
-        Map<Long, List<ItemDtoRequest>> items = findItemsByRequest(requests);
+        Map<Long, List<ItemDtoRequest>> items = findItemsByRequest(requests.getContent());
 
-        return requests
-                .stream()
-                .map(itemRequest -> ItemRequestMapper.mapToItemRequestDtoOutput(itemRequest,
-                        items.get(itemRequest.getId())))
-                .collect(toList());
+        return requests.map(itemRequest -> ItemRequestMapper.mapToItemRequestDtoOutput(itemRequest,
+                items.get(itemRequest.getId())));
     }
 
     @Override
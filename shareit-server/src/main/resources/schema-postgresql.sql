@@ -0,0 +1,81 @@
+DROP TABLE bookings;
+
+CREATE TABLE bookings (
+    id         BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id    BIGINT NOT NULL,
+    booker_id  BIGINT NOT NULL,
+    status     VARCHAR(20) NOT NULL,
+    created    TIMESTAMP WITHOUT TIME ZONE,
+    version    BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_booking
+        PRIMARY KEY (id, start_date),
+    CONSTRAINT fk_bookings_to_items
+        FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE,
+    CONSTRAINT fk_bookings_to_users
+        FOREIGN KEY(booker_id) REFERENCES users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (start_date);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE INDEX ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+ALTER TABLE items
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+        GENERATED ALWAYS AS (setweight(to_tsvector('simple', name), 'A') ||
+                             setweight(to_tsvector('simple', description), 'B')) STORED;
+
+CREATE INDEX IF NOT EXISTS ix_items_search_vector ON items USING GIN (search_vector);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_waiting ON bookings (booker_id, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_rejected ON bookings (booker_id, start_date DESC, id DESC)
+    WHERE status = 'REJECTED';
+CREATE INDEX IF NOT EXISTS ix_bookings_item_waiting ON bookings (item_id, start_date DESC, id DESC)
+    WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS ix_bookings_item_rejected ON bookings (item_id, start_date DESC, id DESC)
+    WHERE status = 'REJECTED';
+CREATE INDEX IF NOT EXISTS ix_bookings_waiting_start ON bookings (start_date, id)
+    WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS ix_bookings_item_approved ON bookings (item_id, start_date, end_date)
+    WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS ix_items_available ON items (id)
+    WHERE is_available;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings_default
+    ADD CONSTRAINT ex_bookings_default_item_period
+        EXCLUDE USING GIST (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status IN ('WAITING', 'APPROVED'));
+
+CREATE OR REPLACE FUNCTION check_booking_overlap() RETURNS TRIGGER AS '
+BEGIN
+    IF NEW.status IN (''WAITING'', ''APPROVED'') THEN
+        PERFORM pg_advisory_xact_lock(NEW.item_id);
+        IF EXISTS (SELECT 1 FROM bookings b
+                   WHERE b.item_id = NEW.item_id
+                     AND b.id <> NEW.id
+                     AND b.status IN (''WAITING'', ''APPROVED'')
+                     AND tsrange(b.start_date, b.end_date) && tsrange(NEW.start_date, NEW.end_date)) THEN
+            RAISE EXCEPTION ''Booking % overlaps another booking of item %'', NEW.id, NEW.item_id
+                USING ERRCODE = ''exclusion_violation'';
+        END IF;
+    END IF;
+    RETURN NEW;
+END;
+' LANGUAGE plpgsql;
+
+CREATE TRIGGER tr_bookings_overlap
+    BEFORE INSERT OR UPDATE OF status, start_date, end_date ON bookings
+    FOR EACH ROW EXECUTE FUNCTION check_booking_overlap();
+
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, false) FROM users;
+SELECT setval('requests_seq', COALESCE(MAX(id), 0) + 50, false) FROM requests;
+SELECT setval('items_seq', COALESCE(MAX(id), 0) + 50, false) FROM items;
+SELECT setval('bookings_seq', COALESCE(MAX(id), 0) + 50, false) FROM bookings;
+SELECT setval('comments_seq', COALESCE(MAX(id), 0) + 50, false) FROM comments;
+SELECT setval('booking_events_seq', COALESCE(MAX(id), 0) + 50, false) FROM booking_events;
\ No newline at end of file
@@ -1,7 +1,20 @@
-DROP TABLE IF EXISTS requests, comments, bookings, items, users CASCADE;
+DROP TABLE IF EXISTS requests, comments, item_booking_summaries, item_booking_stats, booking_events, bookings_archive, bookings, items, users CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS booking_events_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_events_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL, 
+    id    BIGINT NOT NULL, 
     name  VARCHAR(50) NOT NULL, 
     email VARCHAR(100) NOT NULL, 
     CONSTRAINT pk_user 
@@ -11,7 +24,7 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT NOT NULL,
     description  VARCHAR(200) NOT NULL,
     requestor_id BIGINT NOT NULL,
     created      TIMESTAMP WITHOUT TIME ZONE,
@@ -22,12 +35,13 @@ CREATE TABLE IF NOT EXISTS requests (
     );
 
 CREATE TABLE IF NOT EXISTS items (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,  
+    id           BIGINT NOT NULL,  
     name         VARCHAR(100) NOT NULL,  
     description  VARCHAR(200) NOT NULL,  
     is_available BOOLEAN NOT NULL,  
     owner_id     BIGINT NOT NULL,  
     request_id   BIGINT,
+    version      BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_item 
         PRIMARY KEY (id), 
     CONSTRAINT fk_items_to_users 
@@ -37,12 +51,14 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL, 
+    id         BIGINT NOT NULL, 
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL, 
     end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL, 
     item_id    BIGINT NOT NULL, 
     booker_id  BIGINT NOT NULL, 
     status     VARCHAR(20) NOT NULL, 
+    created    TIMESTAMP WITHOUT TIME ZONE,
+    version    BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT pk_booking 
         PRIMARY KEY (id), 
     CONSTRAINT fk_bookings_to_items 
@@ -51,8 +67,25 @@ CREATE TABLE IF NOT EXISTS bookings (
         FOREIGN KEY(booker_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id         BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id    BIGINT NOT NULL,
+    booker_id  BIGINT NOT NULL,
+    status     VARCHAR(20) NOT NULL,
+    created    TIMESTAMP WITHOUT TIME ZONE,
+    version    BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_booking_archive
+        PRIMARY KEY (id),
+    CONSTRAINT fk_bookings_archive_to_items
+        FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE,
+    CONSTRAINT fk_bookings_archive_to_users
+        FOREIGN KEY(booker_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
 CREATE TABLE IF NOT EXISTS comments (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id        BIGINT NOT NULL,
     text      VARCHAR NOT NULL,
     created   TIMESTAMP WITHOUT TIME ZONE,
     item_id   BIGINT NOT NULL, 
@@ -63,4 +96,75 @@ CREATE TABLE IF NOT EXISTS comments (
         FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE, 
     CONSTRAINT fk_comments_to_users 
         FOREIGN KEY(author_id) REFERENCES users(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+    item_id         BIGINT NOT NULL,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    last_end_date   TIMESTAMP WITHOUT TIME ZONE,
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    next_start_date TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_item_booking_summary
+        PRIMARY KEY (item_id),
+    CONSTRAINT fk_item_booking_summaries_to_items
+        FOREIGN KEY(item_id) REFERENCES items(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS item_booking_stats (
+    item_id           BIGINT NOT NULL,
+    owner_id          BIGINT NOT NULL,
+    waiting           BIGINT NOT NULL DEFAULT 0,
+    approved          BIGINT NOT NULL DEFAULT 0,
+    rejected          BIGINT NOT NULL DEFAULT 0,
+    canceled          BIGINT NOT NULL DEFAULT 0,
+    expired           BIGINT NOT NULL DEFAULT 0,
+    lead_time_minutes BIGINT NOT NULL DEFAULT 0,
+    lead_time_count   BIGINT NOT NULL DEFAULT 0,
+    lead_time_hour    BIGINT NOT NULL DEFAULT 0,
+    lead_time_day     BIGINT NOT NULL DEFAULT 0,
+    lead_time_week    BIGINT NOT NULL DEFAULT 0,
+    lead_time_month   BIGINT NOT NULL DEFAULT 0,
+    lead_time_longer  BIGINT NOT NULL DEFAULT 0,
+    booked_minutes    BIGINT NOT NULL DEFAULT 0,
+    first_start       TIMESTAMP WITHOUT TIME ZONE,
+    last_end          TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_item_booking_stats
+        PRIMARY KEY (item_id)
+);
+
+CREATE TABLE IF NOT EXISTS booking_events (
+    id              BIGINT NOT NULL,
+    owner_id        BIGINT NOT NULL,
+    booking_id      BIGINT NOT NULL,
+    item_id         BIGINT NOT NULL,
+    booker_id       BIGINT NOT NULL,
+    type            VARCHAR(20) NOT NULL,
+    previous_status VARCHAR(20),
+    status          VARCHAR(20) NOT NULL,
+    start_date      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date        TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    created         TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_booking_event
+        PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_start ON bookings_archive (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id, id);
+
+CREATE INDEX IF NOT EXISTS ix_booking_events_owner ON booking_events (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_booking_events_created ON booking_events (created);
+
+CREATE INDEX IF NOT EXISTS ix_item_booking_summaries_next_start_date ON item_booking_summaries (next_start_date);
\ No newline at end of file
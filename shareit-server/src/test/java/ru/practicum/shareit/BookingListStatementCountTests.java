@@ -0,0 +1,85 @@
+package ru.practicum.shareit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingDtoOutput;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.Cursor;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:statements",
+		"spring.jpa.properties.hibernate.generate_statistics=true"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingListStatementCountTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+	private static final List<Integer> PAGE_SIZES = List.of(1, 20, 200);
+	private static final long OWNER_ID = 1;
+	private static final long BOOKER_ID = 10;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private BookingService bookingService;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeAll
+	void seed() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		for (long id = 1; id <= 50; id++) {
+			jdbcTemplate.update("INSERT INTO users (id, name, email) VALUES (?, ?, ?)",
+					id, "user" + id, "user" + id + "@mail.ru");
+		}
+		for (long id = 1; id <= 300; id++) {
+			jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id) " +
+					"VALUES (?, ?, ?, TRUE, ?)", id, "item" + id, "description" + id, id % 3 + 1);
+		}
+		for (long id = 1; id <= 600; id++) {
+			long bookerId = id % 2 == 0 ? BOOKER_ID : id % 40 + 11;
+			jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+							"VALUES (?, ?, ?, ?, ?, 'APPROVED')",
+					id, NOW.minusDays(id), NOW.minusDays(id).plusHours(1), id % 300 + 1, bookerId);
+		}
+	}
+
+	@Test
+	void bookerPagesUseConstantStatementCount() {
+		assertConstantStatementCount(pageSize -> bookingService.readAllBookerBookings(BOOKER_ID, "ALL",
+				Cursor.NONE, PageRequest.of(0, pageSize)));
+	}
+
+	@Test
+	void ownerPagesUseConstantStatementCount() {
+		assertConstantStatementCount(pageSize -> bookingService.readAllOwnerItemBookings(OWNER_ID, "ALL",
+				Cursor.NONE, PageRequest.of(0, pageSize)));
+	}
+
+	private void assertConstantStatementCount(Function<Integer, Slice<BookingDtoOutput>> page) {
+		for (int pageSize : PAGE_SIZES) {
+			statistics.clear();
+			Slice<BookingDtoOutput> bookings = page.apply(pageSize);
+
+			assertEquals(pageSize, bookings.getNumberOfElements());
+			assertEquals(2, statistics.getPrepareStatementCount(),
+					"Страница из " + pageSize + " бронирований: пользователь и сама страница");
+		}
+	}
+}
@@ -0,0 +1,419 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repository.BookingEventRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.ItemBookingSummaryRepository;
+import ru.practicum.shareit.comment.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(properties = {"spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql",
+		"shareit.booking-archive.enabled=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTests {
+
+	private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+	private static final LocalDateTime MIN_TIME = LocalDateTime.of(1, 1, 1, 0, 0);
+	private static final Pageable PAGE = PageRequest.of(0, 10);
+	private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+	private static final List<Class<?>> REPOSITORIES = List.of(BookingRepository.class, ArchivedBookingRepository.class,
+			BookingEventRepository.class, ItemBookingSummaryRepository.class, CommentRepository.class, ItemRepository.class,
+			ItemRequestRepository.class, UserRepository.class);
+	private static final Map<String, Set<String>> ALLOWED_SEQ_SCANS = Map.of(
+			"BookingRepository.streamForStatistics/0", Set.of("bookings_default", "items"),
+			"ArchivedBookingRepository.streamForStatistics/0", Set.of("bookings_archive", "items"),
+			"ItemRepository.search/3", Set.of("items"),
+			"ItemRepository.searchAvailable/5", Set.of("items"),
+			"ItemRepository.searchRanked/2", Set.of("items"),
+			"ItemRepository.searchRankedAvailable/4", Set.of("items"));
+
+	@Autowired
+	private StatementRecorder recorder;
+	@Autowired
+	private EmbeddedPostgres postgres;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private BookingRepository bookingRepository;
+	@Autowired
+	private ArchivedBookingRepository archivedBookingRepository;
+	@Autowired
+	private BookingEventRepository bookingEventRepository;
+	@Autowired
+	private ItemBookingSummaryRepository summaryRepository;
+	@Autowired
+	private CommentRepository commentRepository;
+	@Autowired
+	private ItemRepository itemRepository;
+	@Autowired
+	private ItemRequestRepository itemRequestRepository;
+
+	@BeforeAll
+	void seed() {
+		jdbcTemplate.update("INSERT INTO users (id, name, email) " +
+				"SELECT g, 'user' || g, 'user' || g || '@mail.ru' FROM generate_series(1, 10000) g");
+		jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) " +
+				"SELECT g, 'request ' || g, g % 1000 + 1, ? - g * INTERVAL '1 hour' " +
+				"FROM generate_series(1, 5000) g", NOW);
+		jdbcTemplate.update("INSERT INTO items (id, name, description, is_available, owner_id, request_id) " +
+				"SELECT g, 'item ' || g, 'description ' || g, g % 10 <> 0, g % 1000 + 1, " +
+				"CASE WHEN g % 5 = 0 THEN g % 5000 + 1 END " +
+				"FROM generate_series(1, 20000) g");
+		jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status) " +
+				"SELECT g, s.start_date, s.start_date + INTERVAL '3 days', (g - 1) % 20000 + 1, g * 7 % 1000 + 1, " +
+				"(ARRAY['WAITING', 'APPROVED', 'REJECTED', 'CANCELED'])[g % 4 + 1] " +
+				"FROM generate_series(1, 200000) g, " +
+				"LATERAL (SELECT ? + ((g - 1) / 20000 - 5) * INTERVAL '10 days' " +
+				"+ (g % 24) * INTERVAL '1 hour' AS start_date) s", NOW);
+		jdbcTemplate.update("INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status) " +
+				"SELECT 200000 + g, s.start_date, s.start_date + INTERVAL '3 days', (g - 1) % 20000 + 1, " +
+				"g * 7 % 1000 + 1, (ARRAY['APPROVED', 'REJECTED', 'CANCELED', 'EXPIRED'])[g % 4 + 1] " +
+				"FROM generate_series(1, 100000) g, " +
+				"LATERAL (SELECT ? - INTERVAL '2 years' - ((g - 1) / 20000) * INTERVAL '30 days' " +
+				"+ (g % 24) * INTERVAL '1 hour' AS start_date) s", NOW);
+		jdbcTemplate.update("INSERT INTO comments (id, text, created, item_id, author_id) " +
+				"SELECT g, 'comment ' || g, ? - g * INTERVAL '1 minute', g % 20000 + 1, g % 1000 + 1 " +
+				"FROM generate_series(1, 50000) g", NOW);
+		jdbcTemplate.update("INSERT INTO item_booking_summaries (item_id, next_start_date) " +
+				"SELECT g, ? + (g % 100) * INTERVAL '1 hour' FROM generate_series(1, 19000) g", NOW);
+		jdbcTemplate.update("INSERT INTO booking_events (id, owner_id, booking_id, item_id, booker_id, type, status, " +
+				"start_date, end_date, created) " +
+				"SELECT g, g % 1000 + 1, g, g % 20000 + 1, g * 7 % 1000 + 1, 'CREATED', 'WAITING', " +
+				"? + g * INTERVAL '1 hour', ? + (g + 24) * INTERVAL '1 hour', ? - g * INTERVAL '1 minute' " +
+				"FROM generate_series(1, 50000) g", NOW, NOW, NOW);
+		jdbcTemplate.execute("VACUUM ANALYZE");
+	}
+
+	@Test
+	void everyRepositoryMethodIsCovered() {
+		Set<String> declared = REPOSITORIES.stream()
+				.flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+				.filter(method -> !method.isSynthetic() && !method.isDefault())
+				.map(method -> method.getDeclaringClass().getSimpleName() + "." + method.getName()
+						+ "/" + method.getParameterCount())
+				.collect(Collectors.toSet());
+
+		assertEquals(declared, repositoryCalls().keySet());
+	}
+
+	@TestFactory
+	Stream<DynamicTest> repositoryQueriesDoNotScanTables() {
+		return repositoryCalls().entrySet().stream()
+				.map(call -> DynamicTest.dynamicTest(call.getKey(), () -> assertNoSeqScan(call.getKey(), call.getValue())));
+	}
+
+	private void assertNoSeqScan(String name, Runnable call) throws Exception {
+		recorder.start();
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				call.run();
+				status.setRollbackOnly();
+			});
+		} finally {
+			recorder.stop();
+		}
+		List<RecordedStatement> statements = recorder.drain();
+		assertFalse(statements.isEmpty(), name + " не выполнил ни одного запроса");
+
+		Set<String> allowed = ALLOWED_SEQ_SCANS.getOrDefault(name, Set.of());
+		for (RecordedStatement statement : statements) {
+			String plan = explain(statement);
+			Matcher matcher = SEQ_SCAN.matcher(plan);
+			while (matcher.find()) {
+				if (!allowed.contains(matcher.group(1))) {
+					fail(name + " читает таблицу " + matcher.group(1) + " целиком.\n" + statement.sql + "\n" + plan);
+				}
+			}
+		}
+	}
+
+	private String explain(RecordedStatement statement) throws Exception {
+		try (Connection connection = postgres.getPostgresDatabase().getConnection();
+			 PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql)) {
+			for (Binding binding : statement.bindings) {
+				binding.method.invoke(explain, binding.args);
+			}
+			StringBuilder plan = new StringBuilder();
+			try (ResultSet rows = explain.executeQuery()) {
+				while (rows.next()) {
+					plan.append(rows.getString(1)).append('\n');
+				}
+			}
+			return plan.toString();
+		}
+	}
+
+	private Map<String, Runnable> repositoryCalls() {
+		long bookerId = 7;
+		long ownerId = 3;
+		long itemId = 42;
+		List<Long> itemIds = List.of(41L, 42L, 43L);
+		LocalDateTime startBefore = Cursor.NONE.timeBefore();
+		long idBefore = Cursor.NONE.idBefore();
+		List<Status> waiting = List.of(Status.WAITING);
+		List<Status> blocking = List.of(Status.WAITING, Status.APPROVED);
+
+		Map<String, Runnable> calls = new LinkedHashMap<>();
+		calls.put("BookingRepository.readAllBookerBookings/4",
+				() -> bookingRepository.readAllBookerBookings(PAGE, bookerId, startBefore, idBefore));
+		calls.put("BookingRepository.readAllBookerCurrentBookings/5",
+				() -> bookingRepository.readAllBookerCurrentBookings(PAGE, bookerId, NOW, startBefore, idBefore));
+		calls.put("BookingRepository.readAllBookerPastBookings/5",
+				() -> bookingRepository.readAllBookerPastBookings(PAGE, bookerId, NOW, startBefore, idBefore));
+		calls.put("BookingRepository.readAllBookerFutureBookings/5",
+				() -> bookingRepository.readAllBookerFutureBookings(PAGE, bookerId, NOW, startBefore, idBefore));
+		calls.put("BookingRepository.readAllBookerBookingsByStatus/5",
+				() -> bookingRepository.readAllBookerBookingsByStatus(PAGE, bookerId, waiting, startBefore, idBefore));
+		calls.put("BookingRepository.readAllOwnerItemsBookings/9",
+				() -> bookingRepository.readAllOwnerItemsBookings(PAGE, ownerId, EnumSet.allOf(Status.class),
+						MIN_TIME, NOW, NOW, startBefore, startBefore, idBefore));
+		calls.put("BookingRepository.countBookerBookings/4",
+				() -> bookingRepository.countBookerBookings(bookerId, EnumSet.allOf(Status.class), NOW, NOW));
+		calls.put("BookingRepository.countOwnerItemsBookings/4",
+				() -> bookingRepository.countOwnerItemsBookings(ownerId, EnumSet.allOf(Status.class), NOW, NOW));
+		calls.put("BookingRepository.findWaitingForExpiry/4",
+				() -> bookingRepository.findWaitingForExpiry(NOW.minusHours(1), MIN_TIME, 0, PAGE));
+		calls.put("BookingRepository.expire/1", () -> bookingRepository.expire(itemIds));
+		calls.put("BookingRepository.findAllWithItemByIdIn/1", () -> bookingRepository.findAllWithItemByIdIn(itemIds));
+		calls.put("BookingRepository.findItemIntervals/3",
+				() -> bookingRepository.findItemIntervals(itemIds, blocking, NOW));
+		calls.put("BookingRepository.decide/3",
+				() -> bookingRepository.decide(itemIds, Status.REJECTED, Status.WAITING));
+		calls.put("BookingRepository.streamForStatistics/0", () -> {
+			try (Stream<?> bookings = bookingRepository.streamForStatistics()) {
+				bookings.limit(10).count();
+			}
+		});
+		calls.put("BookingRepository.findAllByItem_Id/1", () -> bookingRepository.findAllByItem_Id(itemId));
+		calls.put("BookingRepository.findLastAndNextApprovedBookings/2",
+				() -> bookingRepository.findLastAndNextApprovedBookings(itemIds, NOW));
+		calls.put("BookingRepository.findItemIdsBookedBetween/3",
+				() -> bookingRepository.findItemIdsBookedBetween(itemIds, NOW, NOW.plusDays(7)));
+		calls.put("BookingRepository.findIntervals/3",
+				() -> bookingRepository.findIntervals(itemId, blocking, NOW));
+		calls.put("BookingRepository.streamIntervals/4", () -> {
+			try (Stream<?> intervals = bookingRepository.streamIntervals(itemId, blocking, NOW, NOW.plusYears(1))) {
+				intervals.count();
+			}
+		});
+
+		calls.put("ArchivedBookingRepository.readAllBookerBookings/7",
+				() -> archivedBookingRepository.readAllBookerBookings(PAGE, bookerId, EnumSet.allOf(Status.class),
+						NOW, NOW, startBefore, idBefore));
+		calls.put("ArchivedBookingRepository.readAllOwnerItemsBookings/7",
+				() -> archivedBookingRepository.readAllOwnerItemsBookings(PAGE, ownerId, EnumSet.allOf(Status.class),
+						NOW, NOW, startBefore, idBefore));
+		calls.put("ArchivedBookingRepository.existsByItem_IdAndBooker_IdAndStatus/3",
+				() -> archivedBookingRepository.existsByItem_IdAndBooker_IdAndStatus(itemId, bookerId, Status.APPROVED));
+		calls.put("ArchivedBookingRepository.streamForStatistics/0", () -> {
+			try (Stream<?> bookings = archivedBookingRepository.streamForStatistics()) {
+				bookings.limit(10).count();
+			}
+		});
+
+		calls.put("BookingEventRepository.findReplay/5",
+				() -> bookingEventRepository.findReplay(PAGE, ownerId, 0, 40000, NOW.minusMinutes(5)));
+		calls.put("BookingEventRepository.deleteCreatedBefore/1",
+				() -> bookingEventRepository.deleteCreatedBefore(NOW.minusDays(30)));
+
+		calls.put("ItemBookingSummaryRepository.findAllByItemIdIn/1",
+				() -> summaryRepository.findAllByItemIdIn(itemIds));
+		calls.put("ItemBookingSummaryRepository.insertEmpty/1",
+				() -> summaryRepository.insertEmpty(List.of(19999L, 20000L)));
+		calls.put("ItemBookingSummaryRepository.findForUpdate/1", () -> summaryRepository.findForUpdate(itemId));
+		calls.put("ItemBookingSummaryRepository.findAllForUpdate/1", () -> summaryRepository.findAllForUpdate(itemIds));
+		calls.put("ItemBookingSummaryRepository.findTop500ByNextStartLessThanEqualOrderByNextStart/1",
+				() -> summaryRepository.findTop500ByNextStartLessThanEqualOrderByNextStart(NOW));
+
+		calls.put("CommentRepository.findCommentsByItemId/1", () -> commentRepository.findCommentsByItemId(itemId));
+		calls.put("CommentRepository.findAllWithAuthorByItemIdIn/1",
+				() -> commentRepository.findAllWithAuthorByItemIdIn(itemIds));
+
+		calls.put("ItemRepository.incrementVersion/2", () -> itemRepository.incrementVersion(itemId, 0));
+		calls.put("ItemRepository.findAllByOwnerIdAndIdGreaterThanOrderById/3",
+				() -> itemRepository.findAllByOwnerIdAndIdGreaterThanOrderById(ownerId, 0, PAGE));
+		calls.put("ItemRepository.findAllByItemRequestId/1", () -> itemRepository.findAllByItemRequestId(11));
+		calls.put("ItemRepository.findAllByItemRequestIdIn/1",
+				() -> itemRepository.findAllByItemRequestIdIn(List.of(11L, 21L, 31L)));
+		calls.put("ItemRepository.findTop1000ByAvailableTrueAndIdGreaterThanOrderById/1",
+				() -> itemRepository.findTop1000ByAvailableTrueAndIdGreaterThanOrderById(5000));
+		calls.put("ItemRepository.search/3", () -> itemRepository.search("item 42", 0, PAGE));
+		calls.put("ItemRepository.searchAvailable/5",
+				() -> itemRepository.searchAvailable("item 42", 0, NOW, NOW.plusDays(7), PAGE));
+		calls.put("ItemRepository.searchRanked/2", () -> itemRepository.searchRanked("item 42", PAGE));
+		calls.put("ItemRepository.searchRankedAvailable/4",
+				() -> itemRepository.searchRankedAvailable("item 42", NOW, NOW.plusDays(7), PAGE));
+		calls.put("ItemRepository.fullTextSearch/2", () -> itemRepository.fullTextSearch("4242:*", PAGE));
+		calls.put("ItemRepository.fullTextSearch/3",
+				() -> itemRepository.fullTextSearch("4242:*", 0, PAGE));
+		calls.put("ItemRepository.fullTextSearchAvailable/4",
+				() -> itemRepository.fullTextSearchAvailable("4242:*", NOW, NOW.plusDays(7), PAGE));
+		calls.put("ItemRepository.fullTextSearchAvailable/5",
+				() -> itemRepository.fullTextSearchAvailable("4242:*", 0, NOW, NOW.plusDays(7), PAGE));
+
+		calls.put("ItemRequestRepository.findAllByRequestorIdOrderByCreatedDesc/1",
+				() -> itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(bookerId));
+		calls.put("ItemRequestRepository.readAllOtherUsersRequests/4",
+				() -> itemRequestRepository.readAllOtherUsersRequests(bookerId, startBefore, idBefore, PAGE));
+		calls.put("ItemRequestRepository.findByIdOrderByCreatedDesc/1",
+				() -> itemRequestRepository.findByIdOrderByCreatedDesc(11));
+		return calls;
+	}
+
+	@TestConfiguration
+	static class EmbeddedPostgresConfiguration {
+
+		@Bean(destroyMethod = "close")
+		EmbeddedPostgres embeddedPostgres() throws IOException {
+			return EmbeddedPostgres.start();
+		}
+
+		@Bean
+		StatementRecorder statementRecorder() {
+			return new StatementRecorder();
+		}
+
+		@Bean
+		@Primary
+		DataSource dataSource(EmbeddedPostgres postgres, StatementRecorder recorder) {
+			return recorder.wrap(postgres.getPostgresDatabase());
+		}
+	}
+
+	static class StatementRecorder {
+		private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+		private volatile boolean recording;
+
+		void start() {
+			statements.clear();
+			recording = true;
+		}
+
+		void stop() {
+			recording = false;
+		}
+
+		List<RecordedStatement> drain() {
+			List<RecordedStatement> drained = new ArrayList<>(statements);
+			statements.clear();
+			return drained;
+		}
+
+		DataSource wrap(DataSource dataSource) {
+			return proxy(DataSource.class, (method, args) -> {
+				Object result = invoke(method, dataSource, args);
+				return result instanceof Connection ? wrap((Connection) result) : result;
+			});
+		}
+
+		private Connection wrap(Connection connection) {
+			return proxy(Connection.class, (method, args) -> {
+				Object result = invoke(method, connection, args);
+				if (method.getName().equals("prepareStatement")) {
+					return wrap((PreparedStatement) result, (String) args[0]);
+				}
+				return result;
+			});
+		}
+
+		private PreparedStatement wrap(PreparedStatement statement, String sql) {
+			List<Binding> bindings = new ArrayList<>();
+			return proxy(PreparedStatement.class, (method, args) -> {
+				String name = method.getName();
+				if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+					bindings.add(new Binding(method, args));
+				} else if (name.equals("clearParameters")) {
+					bindings.clear();
+				} else if (recording && name.startsWith("execute")) {
+					statements.add(new RecordedStatement(sql, List.copyOf(bindings)));
+				}
+				return invoke(method, statement, args);
+			});
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, Handler handler) {
+			return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+					(proxy, method, args) -> handler.handle(method, args));
+		}
+
+		private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+
+		private interface Handler {
+			Object handle(Method method, Object[] args) throws Throwable;
+		}
+	}
+
+	private static class RecordedStatement {
+		private final String sql;
+		private final List<Binding> bindings;
+
+		RecordedStatement(String sql, List<Binding> bindings) {
+			this.sql = sql;
+			this.bindings = bindings;
+		}
+	}
+
+	private static class Binding {
+		private final Method method;
+		private final Object[] args;
+
+		Binding(Method method, Object[] args) {
+			this.method = method;
+			this.args = args;
+		}
+	}
+}